@@ -0,0 +1,60 @@
+package puzzle;
+
+import java.util.Random;
+
+// Fixed inputs for the benchmarks, so every run measures the same work.
+class Boards {
+    // 8-puzzle instances by optimal solution length
+    final static String[] BY_DEPTH = {
+        "4",  "1 2 3 4 6 8 7 5 0",
+        "8",  "1 3 6 4 0 8 7 2 5",
+        "12", "2 3 6 5 0 8 1 4 7",
+        "16", "1 2 6 4 3 7 0 8 5",
+        "20", "2 4 6 5 0 3 7 1 8",
+        "24", "8 5 6 2 0 1 4 7 3",
+        "28", "0 3 7 6 8 1 5 4 2",
+    };
+
+    private Boards(){}
+
+    // method to get the 8-puzzle instance whose optimal solution has the given length
+    static int[][] atDepth(int depth){
+        for(int i=0; i<BY_DEPTH.length; i+=2){
+            if(Integer.parseInt(BY_DEPTH[i]) == depth) return Boards.parse(3, BY_DEPTH[i + 1]);
+        }
+        throw new IllegalArgumentException("No instance of depth " + depth);
+    }
+
+    static int[][] parse(int width, String values){
+        String[] split = values.trim().split("\\s+");
+        int[][] puzzle = new int[width][width];
+        for(int cell=0; cell<width*width; cell++){
+            puzzle[cell / width][cell % width] = Integer.parseInt(split[cell]);
+        }
+        return puzzle;
+    }
+
+    // method to walk the empty tile randomly away from the goal. Returns the packed boards along the
+    // walk: board[2 * i] is the low word and board[2 * i + 1] the high word of step i. The walk may
+    // revisit boards, as a search does.
+    static long[] walk(PuzzleSize size, int steps, long seed){
+        Random random = new Random(seed);
+        long[] boards = new long[2 * steps];
+        long low = size.getGoalLow(), high = size.getGoalHigh();
+        int emptyIndex = size.getGoalEmptyIndex();
+        char[] moves = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+        for(int i=0; i<steps; i++){
+            int target;
+            do {
+                target = size.moveTarget(emptyIndex, moves[random.nextInt(moves.length)]);
+            } while(target < 0);
+            int tile = PuzzleSize.tileAt(low, high, target);
+            low ^= PuzzleSize.lowBits(tile, emptyIndex) ^ PuzzleSize.lowBits(tile, target);
+            high ^= PuzzleSize.highBits(tile, emptyIndex) ^ PuzzleSize.highBits(tile, target);
+            emptyIndex = target;
+            boards[2 * i] = low;
+            boards[2 * i + 1] = high;
+        }
+        return boards;
+    }
+}
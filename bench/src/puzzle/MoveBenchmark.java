@@ -0,0 +1,72 @@
+package puzzle;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The work every search repeats per node: listing the legal moves, applying one, testing for the
+// goal, and building a state from scratch (packing plus the full heuristic).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class MoveBenchmark {
+    @Param({"3", "4", "5"})
+    public int width;
+
+    private PuzzleSize size;
+    private Heuristic heuristic;
+    private Solver solver;
+    private int[][] puzzle;
+    private State state;
+    private Character action;
+
+    @Setup
+    public void setup(){
+        this.size = PuzzleSize.of(this.width);
+        this.heuristic = Heuristic.forName(Heuristic.MANHATTAN, this.size);
+        this.solver = new Solver(this.heuristic);
+        long[] walk = Boards.walk(this.size, 40, this.width);
+        this.state = new State(this.size, walk[78], walk[79], State.actionNotApplicable, null, this.heuristic);
+        this.puzzle = this.state.getTileValues();
+        this.action = this.solver.actions(this.state).get(0);
+    }
+
+    @Benchmark
+    public ArrayList<Character> actions(){
+        return this.solver.actions(this.state);
+    }
+
+    @Benchmark
+    public State result(){
+        return this.solver.result(this.state, this.action);
+    }
+
+    @Benchmark
+    public Boolean goalTest(){
+        return this.solver.goalTest(this.state);
+    }
+
+    // a root state from a packed board: finds the empty tile and computes h from scratch
+    @Benchmark
+    public State newState(){
+        return new State(this.size, this.state.getBoard(), this.state.getBoardHigh(), State.actionNotApplicable, null, this.heuristic);
+    }
+
+    // a root state from a 2D array, as the game board builds it
+    @Benchmark
+    public State newStateFromArray(){
+        return new State(this.puzzle, State.actionNotApplicable, null, this.heuristic);
+    }
+}
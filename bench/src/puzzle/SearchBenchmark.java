@@ -0,0 +1,49 @@
+package puzzle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Whole solves of fixed 8-puzzle instances, grouped by the length of their optimal solution.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class SearchBenchmark {
+    @Param({Solver.BFS, Solver.DFS, Solver.A_STAR})
+    public String algorithm;
+
+    @Param({"8", "16", "24"})
+    public int depth;
+
+    private Solver solver;
+    private State start;
+
+    @Setup
+    public void setup(){
+        Heuristic heuristic = Heuristic.forName(Heuristic.MANHATTAN, PuzzleSize.of(3));
+        this.solver = new Solver(heuristic);
+        this.start = new State(Boards.atDepth(this.depth), State.actionNotApplicable, null, heuristic);
+
+        // a wrong instance would quietly measure a different depth
+        SolverResult result = this.solver.solve(this.algorithm, this.start);
+        if(!result.isSolved() || (!this.algorithm.equals(Solver.DFS) && result.getPathCost() != this.depth)){
+            throw new IllegalStateException(this.algorithm + " did not solve the depth " + this.depth + " instance optimally");
+        }
+    }
+
+    @Benchmark
+    public SolverResult solve(){
+        return this.solver.solve(this.algorithm, this.start);
+    }
+}
@@ -0,0 +1,57 @@
+package puzzle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The solvability check every loaded puzzle goes through, the inversion count behind it, and the
+// bulk validation of a buffer of boards (reported per call, for BOARDS boards).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class SolvabilityBenchmark {
+    private final static int BOARDS = 1000;
+
+    @Param({"3", "4", "5"})
+    public int width;
+
+    private PuzzleSize size;
+    private long low, high;
+    private long[] boards;
+    private final byte[] verdicts = new byte[BOARDS];
+
+    @Setup
+    public void setup(){
+        this.size = PuzzleSize.of(this.width);
+        long[] walk = Boards.walk(this.size, BOARDS, this.width);
+        this.low = walk[2 * BOARDS - 2];
+        this.high = walk[2 * BOARDS - 1];
+        this.boards = walk;
+    }
+
+    @Benchmark
+    public boolean isSolvable(){
+        return this.size.isSolvable(this.low, this.high);
+    }
+
+    @Benchmark
+    public int inversions(){
+        return this.size.inversions(this.low, this.high);
+    }
+
+    @Benchmark
+    public int validateAll(){
+        return this.size.validateAll(this.boards, 0, BOARDS, this.verdicts);
+    }
+}
@@ -0,0 +1,72 @@
+package puzzle;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Duplicate detection: adding the boards of a long random walk (which revisits boards the way a
+// search does) to the visited set picked for the width, and looking them up again. The 8-puzzle gets
+// its rank bitset; hashed() measures the open-addressing index on the same boards for comparison.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class VisitedBenchmark {
+    private final static int BOARDS = 100000;
+
+    @Param({"3", "4", "5"})
+    public int width;
+
+    private PuzzleSize size;
+    private long[] walk;
+    private VisitedSet filled;
+
+    @Setup
+    public void setup(){
+        this.size = PuzzleSize.of(this.width);
+        this.walk = Boards.walk(this.size, BOARDS, this.width);
+        this.filled = VisitedSet.forSize(this.size);
+        for(int i=0; i<BOARDS; i++) this.filled.add(this.walk[2 * i], this.walk[2 * i + 1]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int add(){
+        return VisitedBenchmark.addAll(VisitedSet.forSize(this.size), this.walk);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int hashed(){
+        return VisitedBenchmark.addAll(new BoardIndex(), this.walk);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOARDS)
+    public int contains(){
+        int found = 0;
+        for(int i=0; i<BOARDS; i++){
+            if(this.filled.contains(this.walk[2 * i], this.walk[2 * i + 1])) found++;
+        }
+        return found;
+    }
+
+    private static int addAll(VisitedSet visited, long[] walk){
+        int added = 0;
+        for(int i=0; i<BOARDS; i++){
+            if(visited.add(walk[2 * i], walk[2 * i + 1])) added++;
+        }
+        return added;
+    }
+}
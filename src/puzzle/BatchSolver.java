@@ -0,0 +1,290 @@
+package puzzle;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Headless entry point that solves every puzzle of an input file with one algorithm, without starting
+// JavaFX. A puzzle is either one line holding all N*N values, or a block of N lines of N values like
+// inputFile.in. Blank lines and lines starting with '#' separate puzzles. The input is streamed
+// through a PuzzleParser, so its size is not limited by the heap.
+//
+// Usage: java puzzle.BatchSolver [-t threads] [-nodes N] [-memory MB] [-depth D] [-deadline ms] [-cache file] [-metrics file] [-binary] [-sweep] <algorithm> <input file> [output file] [heuristic]
+//
+// Puzzles are solved on a work-stealing pool of 'threads' workers (all cores by default) while this
+// thread keeps reading. One line is written per puzzle, in input order:
+//     <number> <algorithm> cost=<moves> expanded=<nodes> time=<ms>ms [bound=<factor>] moves=<UDLR...>
+// or  <number> unsolvable  /  <number> invalid <reason>  /  <number> budget exceeded <budget>
+// Each solve is stopped once it expands more than -nodes boards or its boards are estimated to take
+// more than -memory megabytes (half the heap shared between the workers by default). -depth sets the
+// depth limit of DLS and IDDFS, which otherwise is the longest optimal solution for the board width.
+// -deadline is the time ARA* may spend on a puzzle before it returns its best solution so far; the
+// result line then ends with the bound reached (bound=<factor>, the cost is at most factor * optimal).
+// With -binary the results go to a binary solution file instead (see SolutionFileWriter), which
+// SolutionFileReader can seek into by puzzle number and export back to these text lines.
+// With -cache the optimal solutions are kept in a solution cache file that is loaded before the run
+// and saved after it, so boards on a path solved in an earlier run are answered without a search.
+// With -metrics the search counters of the whole run (see SolverMetrics) are written to a file in
+// the Prometheus text format.
+// With -sweep the results are discarded and the input is solved again with 1, 2, 4, ... threads up to
+// 'threads', printing the throughput of each run.
+public class BatchSolver {
+    private final static int WINDOW_PER_THREAD = 64;   // pending result lines allowed per worker
+
+    private final String algorithm;
+    private final String heuristicName;
+    private final ForkJoinPool pool;                    // null when solving on the reading thread
+    private final ReorderBuffer<SolutionRecord> results;
+    private final Solver[] solvers = new Solver[PuzzleSize.MAX_WIDTH + 1];     // shared by the workers, by width
+    private final SolutionCache cache;                  // shared by every solver, or null
+    private final SearchLimits limits;                  // budgets of each solve
+
+    private int count;                                  // puzzles read so far, also the number of the last one
+    private final AtomicInteger solved = new AtomicInteger();
+
+    BatchSolver(String algorithm, String heuristicName, int threads, SolutionCache cache, SearchLimits limits,
+                Consumer<SolutionRecord> sink){
+        this.algorithm = algorithm;
+        this.heuristicName = heuristicName;
+        this.cache = cache;
+        this.limits = limits;
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        this.results = new ReorderBuffer<>(threads * WINDOW_PER_THREAD, sink);
+    }
+
+    public static void main(String[] args){
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean sweep = false, binary = false;
+        String cacheFile = null, metricsFile = null;
+        long maxNodes = 0, maxMegabytes = 0, maxDepth = 0, deadlineMillis = 0;
+        int i = 0;
+        while(i < args.length && args[i].startsWith("-") && args[i].length() > 1){
+            if(args[i].equals("-t") && i + 1 < args.length){
+                try {
+                    threads = Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if(threads < 1) BatchSolver.usage("-t needs a positive thread count");
+                i += 2;
+            }
+            else if(args[i].equals("-nodes") && i + 1 < args.length){
+                maxNodes = BatchSolver.positive(args[i], args[i + 1]);
+                i += 2;
+            }
+            else if(args[i].equals("-memory") && i + 1 < args.length){
+                maxMegabytes = BatchSolver.positive(args[i], args[i + 1]);
+                i += 2;
+            }
+            else if(args[i].equals("-depth") && i + 1 < args.length){
+                maxDepth = BatchSolver.positive(args[i], args[i + 1]);
+                if(maxDepth > Short.MAX_VALUE) BatchSolver.usage("-depth is at most " + Short.MAX_VALUE);
+                i += 2;
+            }
+            else if(args[i].equals("-deadline") && i + 1 < args.length){
+                deadlineMillis = BatchSolver.positive(args[i], args[i + 1]);
+                i += 2;
+            }
+            else if(args[i].equals("-cache") && i + 1 < args.length){
+                cacheFile = args[i + 1];
+                i += 2;
+            }
+            else if(args[i].equals("-metrics") && i + 1 < args.length){
+                metricsFile = args[i + 1];
+                i += 2;
+            }
+            else if(args[i].equals("-binary")){
+                binary = true;
+                i++;
+            }
+            else if(args[i].equals("-sweep")){
+                sweep = true;
+                i++;
+            }
+            else{
+                BatchSolver.usage("Unknown option: " + args[i]);
+            }
+        }
+        if(args.length - i < 2 || args.length - i > 4) BatchSolver.usage(null);
+
+        String algorithm = args[i];
+        if(!Arrays.asList(Solver.ALGORITHMS).contains(algorithm)){
+            BatchSolver.usage("Unknown algorithm: " + algorithm);
+        }
+        String input = args[i + 1];
+        String output = args.length > i + 2 ? args[i + 2] : "-";
+        String heuristicName = args.length > i + 3 ? args[i + 3] : Heuristic.MANHATTAN;
+        if(!Arrays.asList(Heuristic.HEURISTICS).contains(heuristicName)){
+            BatchSolver.usage("Unknown heuristic: " + heuristicName);
+        }
+        long maxBytes = maxMegabytes > 0 ? maxMegabytes << 20 : Runtime.getRuntime().maxMemory() / (2L * threads);
+        SearchLimits limits = new SearchLimits(maxNodes, maxBytes, (int) maxDepth, deadlineMillis * 1_000_000L);
+
+        try {
+            if(sweep){
+                // an unreported first run warms up the JIT so the single-thread baseline is fair
+                new BatchSolver(algorithm, heuristicName, threads, null, limits, record -> {}).solveFile(input);
+                System.out.println("threads  puzzles  seconds  puzzles/sec  speedup");
+                double base = 0;
+                for(int doubling=1; ; doubling*=2){
+                    int t = Math.min(doubling, threads);
+                    BatchSolver batch = new BatchSolver(algorithm, heuristicName, t, null, limits, record -> {});
+                    long elapsed = batch.solveFile(input);
+                    double rate = batch.count / (elapsed / 1e9);
+                    if(t == 1) base = rate;
+                    System.out.printf("%7d  %7d  %7.2f  %11.1f  %6.2fx%n", t, batch.count, elapsed / 1e9, rate, rate / base);
+                    if(t == threads) break;
+                }
+                return;
+            }
+
+            SolutionCache cache = cacheFile == null ? null : SolutionCache.load(cacheFile, SolutionCache.DEFAULT_CAPACITY);
+            BatchSolver batch;
+            long elapsed;
+            if(binary){
+                if(output.equals("-")) BatchSolver.usage("-binary needs an output file");
+                try (SolutionFileWriter out = new SolutionFileWriter(output)) {
+                    batch = new BatchSolver(algorithm, heuristicName, threads, cache, limits, record -> {
+                        try {
+                            out.write(record);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    elapsed = batch.solveFile(input);
+                }
+            }
+            else{
+                try (PrintWriter out = new PrintWriter(output.equals("-")
+                        ? new BufferedWriter(new OutputStreamWriter(System.out))
+                        : new BufferedWriter(new FileWriter(output)))) {
+                    batch = new BatchSolver(algorithm, heuristicName, threads, cache, limits, record -> out.println(record.toText()));
+                    elapsed = batch.solveFile(input);
+                }
+            }
+            System.err.printf("%d puzzles, %d solved in %.1f ms on %d threads (%.1f puzzles/sec)%n",
+                    batch.count, batch.solved.get(), elapsed / 1e6, threads, batch.count / (elapsed / 1e9));
+            if(cache != null){
+                cache.save(cacheFile);
+                System.err.println(cache);
+            }
+            if(metricsFile != null) SolverMetrics.getInstance().writePrometheus(metricsFile);
+        } catch (IOException | InterruptedException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void usage(String problem){
+        if(problem != null) System.err.println(problem);
+        System.err.println("Usage: java puzzle.BatchSolver [-t threads] [-nodes N] [-memory MB] [-depth D] [-deadline ms] [-cache file] [-metrics file] [-binary] [-sweep] <algorithm> <input file> [output file] [heuristic]");
+        System.err.println("Algorithms: " + String.join(", ", Solver.ALGORITHMS));
+        System.err.println("Heuristics: " + String.join(", ", Heuristic.HEURISTICS));
+        System.exit(2);
+    }
+
+    // method to read the positive number given to an option
+    private static long positive(String option, String value){
+        long number;
+        try {
+            number = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            number = 0;
+        }
+        if(number < 1) BatchSolver.usage(option + " needs a positive number");
+        return number;
+    }
+
+    // method to solve a whole input file and wait for the last result line. Returns the elapsed nanoseconds.
+    long solveFile(String input) throws IOException, InterruptedException {
+        long startTime = System.nanoTime();
+        try {
+            this.run(input);
+            this.results.awaitAll();
+        } catch (UncheckedIOException e) {
+            // a result could not be written: the batch fails with the write error
+            throw e.getCause();
+        } finally {
+            if(this.pool != null) this.pool.shutdown();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    // method to read the input file and solve each puzzle as soon as it is complete
+    private void run(String input) throws IOException, InterruptedException {
+        try (PuzzleParser parser = new PuzzleParser(input)) {
+            while(parser.next()){
+                this.submit(parser.getSize(), parser.getLow(), parser.getHigh(), parser.getError());
+            }
+        }
+    }
+
+    // method to queue one puzzle (or the reason it was rejected). Its result is computed by a worker
+    // and written once every earlier result has been written.
+    private void submit(PuzzleSize size, long low, long high, String error) throws InterruptedException {
+        int number = ++this.count;
+        Solver solver = null;
+        String rejection = error;
+        if(rejection == null){
+            try {
+                solver = this.solverFor(size);
+            } catch (IllegalArgumentException e) {
+                rejection = e.getMessage();     // the heuristic does not support this width
+            }
+        }
+        Solver puzzleSolver = solver;
+        String puzzleError = rejection;
+        this.results.reserve();
+        if(this.pool == null){
+            this.results.complete(number - 1, this.resultRecord(number, size, low, high, puzzleError, puzzleSolver));
+        }
+        else{
+            this.pool.execute(() -> this.results.complete(number - 1, this.resultRecord(number, size, low, high, puzzleError, puzzleSolver)));
+        }
+    }
+
+    // method to solve one puzzle (or record why it was rejected).
+    // It never throws, so every reserved result is completed.
+    private SolutionRecord resultRecord(int number, PuzzleSize size, long low, long high, String error, Solver solver){
+        if(error != null){
+            return SolutionRecord.rejected(number, SolutionRecord.INVALID, error, this.algorithm);
+        }
+        if(!size.isSolvable(low, high)){
+            return SolutionRecord.rejected(number, SolutionRecord.UNSOLVABLE, null, this.algorithm);
+        }
+
+        SolverResult result;
+        try {
+            result = solver.solve(this.algorithm, new State(size, low, high, State.actionNotApplicable, null, solver.getHeuristic()));
+        } catch (IllegalArgumentException e) {
+            return SolutionRecord.rejected(number, SolutionRecord.INVALID, e.getMessage(), this.algorithm);
+        } catch (RuntimeException | StackOverflowError | OutOfMemoryError e) {
+            e.printStackTrace();
+            return SolutionRecord.rejected(number, SolutionRecord.ERROR, e.toString(), this.algorithm);
+        }
+        if(result.isBudgetExceeded()){
+            return SolutionRecord.rejected(number, SolutionRecord.BUDGET_EXCEEDED, result.getBudgetExceeded(), this.algorithm);
+        }
+        if(!result.isSolved()){
+            return SolutionRecord.rejected(number, SolutionRecord.UNSOLVED, null, this.algorithm);
+        }
+        this.solved.incrementAndGet();
+        return SolutionRecord.solved(number, size, low, high, result);
+    }
+
+    // the heuristic tables depend on the width, so there is one solver per width. Solvers are only
+    // created on the reading thread and can be shared because every solve is reentrant.
+    private Solver solverFor(PuzzleSize size){
+        if(this.solvers[size.getWidth()] == null){
+            this.solvers[size.getWidth()] = new Solver(Heuristic.forName(this.heuristicName, size), this.cache, this.limits);
+        }
+        return this.solvers[size.getWidth()];
+    }
+}
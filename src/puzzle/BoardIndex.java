@@ -0,0 +1,122 @@
+package puzzle;
+
+// An open-addressing hash map from a packed board (two longs) to an int. Keys live in primitive arrays,
+// so nothing is boxed and no node object is kept alive by the index. Two zero words can never be a
+// valid board, so that key marks an empty slot. Removal shifts the following entries back instead of
+// leaving tombstones.
+public class BoardIndex implements VisitedSet {
+    public final static int ABSENT = -1;
+
+    private final static int INITIAL_CAPACITY = 64;
+
+    private long[] lows;
+    private long[] highs;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public BoardIndex(){
+        this.allocate(BoardIndex.INITIAL_CAPACITY);
+    }
+
+    int size(){
+        return this.size;
+    }
+
+    // returns the value stored for a board, or ABSENT
+    int get(long low, long high){
+        int slot = this.find(low, high);
+        return slot < 0 ? ABSENT : this.values[slot];
+    }
+
+    void put(long low, long high, int value){
+        int slot = this.find(low, high);
+        if(slot >= 0){
+            this.values[slot] = value;
+            return;
+        }
+        if(2 * (this.size + 1) > this.lows.length) this.resize();
+        this.insert(low, high, value);
+    }
+
+    public boolean add(long low, long high){
+        if(this.find(low, high) >= 0) return false;
+        if(2 * (this.size + 1) > this.lows.length) this.resize();
+        this.insert(low, high, 0);
+        return true;
+    }
+
+    public boolean contains(long low, long high){
+        return this.find(low, high) >= 0;
+    }
+
+    void remove(long low, long high){
+        int hole = this.find(low, high);
+        if(hole < 0) return;
+
+        // shift back every following entry of the probe run that would become unreachable
+        int slot = hole;
+        while(true){
+            slot = (slot + 1) & this.mask;
+            if(this.isEmpty(slot)) break;
+            int home = BoardIndex.hash(this.lows[slot], this.highs[slot]) & this.mask;
+            boolean reachable = hole <= slot ? (home > hole && home <= slot) : (home > hole || home <= slot);
+            if(reachable) continue;
+            this.lows[hole] = this.lows[slot];
+            this.highs[hole] = this.highs[slot];
+            this.values[hole] = this.values[slot];
+            hole = slot;
+        }
+        this.lows[hole] = 0L;
+        this.highs[hole] = 0L;
+        this.size--;
+    }
+
+    private int find(long low, long high){
+        int slot = BoardIndex.hash(low, high) & this.mask;
+        while(!this.isEmpty(slot)){
+            if(this.lows[slot] == low && this.highs[slot] == high) return slot;
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private void insert(long low, long high, int value){
+        int slot = BoardIndex.hash(low, high) & this.mask;
+        while(!this.isEmpty(slot)){
+            slot = (slot + 1) & this.mask;
+        }
+        this.lows[slot] = low;
+        this.highs[slot] = high;
+        this.values[slot] = value;
+        this.size++;
+    }
+
+    private boolean isEmpty(int slot){
+        return this.lows[slot] == 0L && this.highs[slot] == 0L;
+    }
+
+    private void resize(){
+        long[] oldLows = this.lows, oldHighs = this.highs;
+        int[] oldValues = this.values;
+        this.allocate(oldLows.length * 2);
+        for(int slot=0; slot<oldLows.length; slot++){
+            if(oldLows[slot] != 0L || oldHighs[slot] != 0L) this.insert(oldLows[slot], oldHighs[slot], oldValues[slot]);
+        }
+    }
+
+    private void allocate(int capacity){
+        this.lows = new long[capacity];
+        this.highs = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+    }
+
+    static int hash(long low, long high){
+        long h = low * 0x9E3779B97F4A7C15L + high * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,11 @@
+package puzzle;
+
+// Thrown inside a search that ran past its SearchLimits. The Solver turns it into a result whose
+// isBudgetExceeded() is true; it never reaches the caller of solve().
+class BudgetExceededException extends RuntimeException {
+    private final static long serialVersionUID = 1L;
+
+    BudgetExceededException(String budget){
+        super(budget);
+    }
+}
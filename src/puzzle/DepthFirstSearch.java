@@ -0,0 +1,153 @@
+package puzzle;
+
+import java.util.Arrays;
+
+// Depth-first searches that keep only the current path. A board is skipped only when it is already on
+// that path, so memory grows with the depth, not with the number of boards reached; the price is that
+// a board reached along several paths is searched again under each.
+//
+// Depth-limited search (DLS) goes no deeper than a fixed limit and returns the first solution it meets,
+// which need not be the shortest. Iterative deepening (IDDFS) runs DLS with limits 0, 1, 2, ... so the
+// first solution it finds is optimal. The path is walked with an explicit stack of move counters, so
+// a deep limit cannot overflow the call stack.
+public class DepthFirstSearch {
+    private final static char[] DIRECTIONS = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+
+    private final PuzzleSize size;
+    private final SearchLimits limits;
+    private final SearchControl control;    // progress and cancellation, or null
+
+    private long board, boardHigh;          // the board being searched, modified in place
+    private int emptyIndex;                 // cell of the empty tile on that board
+    private char[] path;                    // path[d] is the move taken at depth d
+    private int[] next;                     // next[d] is the next direction to try at depth d
+    private BoardIndex onPath;              // the boards on the current path
+    private boolean cutOff;                 // some path was stopped by the limit in the last pass
+    private int solutionLength;
+
+    private long nodesExpanded, nodesGenerated, duplicatesPruned;
+    private int peakDepth;
+
+    DepthFirstSearch(PuzzleSize size, SearchLimits limits, SearchControl control){
+        this.size = size;
+        this.limits = limits;
+        this.control = control;
+    }
+
+    // method to find a list of at most 'limit' moves to the goal, or null if there is none
+    char[] searchLimited(long startBoard, long startBoardHigh, int limit){
+        this.start(startBoard, startBoardHigh, limit);
+        return this.limited(limit) ? Arrays.copyOf(this.path, this.solutionLength) : null;
+    }
+
+    // method to find a shortest list of moves to the goal by deepening the limit one move at a time up
+    // to maxLimit. Returns null if there is no solution within maxLimit.
+    char[] searchIterative(long startBoard, long startBoardHigh, int maxLimit){
+        this.start(startBoard, startBoardHigh, maxLimit);
+        for(int limit=0; limit<=maxLimit; limit++){
+            if(this.limited(limit)) return Arrays.copyOf(this.path, this.solutionLength);
+            // every path ended before the limit: the whole reachable space has been searched
+            if(!this.cutOff) return null;
+        }
+        return null;
+    }
+
+    long getNodesExpanded(){
+        return this.nodesExpanded;
+    }
+
+    long getNodesGenerated(){
+        return this.nodesGenerated;
+    }
+
+    // successors dropped because their board was already on the current path
+    long getDuplicatesPruned(){
+        return this.duplicatesPruned;
+    }
+
+    int getPeakDepth(){
+        return this.peakDepth;
+    }
+
+    private void start(long startBoard, long startBoardHigh, int limit){
+        // the path is all this search holds, so the memory budget caps the depth
+        this.limits.check(0, (long) (limit + 1) * SearchLimits.BYTES_PER_LEVEL);
+
+        this.board = startBoard;
+        this.boardHigh = startBoardHigh;
+        this.emptyIndex = this.size.findEmptyIndex(startBoard, startBoardHigh);
+        this.path = new char[limit + 1];
+        this.next = new int[limit + 1];
+        this.onPath = new BoardIndex();
+        this.onPath.add(startBoard, startBoardHigh);
+        this.nodesExpanded = 0;
+        this.nodesGenerated = 0;
+        this.duplicatesPruned = 0;
+        this.peakDepth = 0;
+    }
+
+    // one depth-limited pass from the start board. Returns true with the solution in path[0..solutionLength).
+    private boolean limited(int limit){
+        this.cutOff = false;
+        if(this.size.isGoal(this.board, this.boardHigh)){
+            this.solutionLength = 0;
+            return true;
+        }
+
+        int depth = 0;
+        this.next[0] = 0;
+        while(true){
+            if(depth < limit && this.next[depth] < DIRECTIONS.length){
+                if(this.next[depth] == 0){
+                    this.nodesExpanded++;
+                    if((this.nodesExpanded & SearchControl.CHECK_MASK) == 0) this.checkpoint(depth);
+                }
+                char move = DIRECTIONS[this.next[depth]++];
+                if(depth > 0 && move == State.inverse(this.path[depth - 1])) continue;   // undoing the last move
+                int target = this.size.moveTarget(this.emptyIndex, move);
+                if(target < 0) continue;
+
+                int previousEmpty = this.emptyIndex;
+                this.slide(target, previousEmpty);
+                this.nodesGenerated++;
+                if(!this.onPath.add(this.board, this.boardHigh)){
+                    // a cycle: the board is already on the path
+                    this.duplicatesPruned++;
+                    this.slide(previousEmpty, target);
+                    continue;
+                }
+
+                this.path[depth++] = move;
+                this.next[depth] = 0;
+                if(depth > this.peakDepth) this.peakDepth = depth;
+                if(this.size.isGoal(this.board, this.boardHigh)){
+                    this.solutionLength = depth;
+                    return true;
+                }
+            }
+            else{
+                if(depth == limit) this.cutOff = true;
+                if(depth == 0) return false;
+
+                // back up one move: the tile slides back into the cell the empty tile came from
+                this.onPath.remove(this.board, this.boardHigh);
+                depth--;
+                int previousEmpty = this.size.moveTarget(this.emptyIndex, State.inverse(this.path[depth]));
+                this.slide(previousEmpty, this.emptyIndex);
+            }
+        }
+    }
+
+    private void checkpoint(int depth){
+        if(this.control != null) this.control.checkpoint(this.nodesExpanded, depth);
+        this.limits.check(this.nodesExpanded, (long) (depth + 1) * SearchLimits.BYTES_PER_LEVEL);
+    }
+
+    // slides the tile at cell 'from' into the empty cell 'to'
+    private void slide(int from, int to){
+        int tile = PuzzleSize.tileAt(this.board, this.boardHigh, from);
+        this.board ^= PuzzleSize.lowBits(tile, from) ^ PuzzleSize.lowBits(tile, to);
+        this.boardHigh ^= PuzzleSize.highBits(tile, from) ^ PuzzleSize.highBits(tile, to);
+        this.emptyIndex = from;
+    }
+}
@@ -0,0 +1,165 @@
+package puzzle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Exact distance-to-goal for every reachable 8-puzzle board, indexed by PermutationRank.
+// Each entry keeps the distance mod 3 in 2 bits (the largest distance, 31, does not fit in a nibble).
+// Neighbouring boards always differ in distance by exactly one, so the neighbour whose entry equals
+// (d - 1) mod 3 is the one closer to the goal, and following it gives an optimal solution.
+//
+// File layout (big-endian): magic, version, goal board, entry count, CRC32 of the payload, payload.
+// The table is kept in the file named by the puzzle.distanceTable system property, or else in the
+// user's cache directory, so it does not depend on the directory the program is started from.
+public class DistanceTable {
+    public final static String PATH_PROPERTY = "puzzle.distanceTable";
+    public final static String DEFAULT_PATH = DistanceTable.defaultPath();
+    public final static int MAX_DEPTH = 31;                          // longest optimal 8-puzzle solution
+
+    private final static int MAGIC = 0x38504442;                     // "8PDB"
+    private final static int VERSION = 1;
+    private final static int HEADER_SIZE = 4 + 4 + 8 + 4 + 8;
+    private final static int PAYLOAD_SIZE = (PermutationRank.STATE_COUNT + 3) / 4;
+
+    private final static PuzzleSize EIGHT_PUZZLE = PuzzleSize.of(3);
+    private final static char[] DIRECTIONS = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+
+    private final ByteBuffer entries;   // 4 entries per byte, lowest bits first
+
+    private DistanceTable(ByteBuffer entries){
+        this.entries = entries;
+    }
+
+    // the table file: the system property if set, else $XDG_CACHE_HOME (or ~/.cache)/8-puzzle/distances.db
+    private static String defaultPath(){
+        String path = System.getProperty(PATH_PROPERTY);
+        if(path != null && !path.isEmpty()) return path;
+        String cache = System.getenv("XDG_CACHE_HOME");
+        if(cache == null || cache.isEmpty()) cache = Paths.get(System.getProperty("user.home"), ".cache").toString();
+        return Paths.get(cache, "8-puzzle", "distances.db").toString();
+    }
+
+    // method to load the table at path, rebuilding and rewriting it if it is missing, stale or corrupt.
+    // A table that cannot be saved is still returned from memory; the next run just builds it again.
+    static DistanceTable loadOrBuild(String path){
+        Path file = Paths.get(path);
+        if(Files.exists(file)){
+            try {
+                return DistanceTable.load(file);
+            } catch (IOException e) {
+                System.out.println("Rebuilding distance table: " + e.getMessage());
+            }
+        }
+        byte[] payload = DistanceTable.build();
+        try {
+            if(file.getParent() != null) Files.createDirectories(file.getParent());
+            DistanceTable.write(file, payload);
+        } catch (IOException e) {
+            System.err.println("Warning: could not save the distance table to " + path + ": " + e);
+        }
+        return new DistanceTable(ByteBuffer.wrap(payload));
+    }
+
+    // method to memory-map a table file, rejecting it if the header or checksum does not match
+    static DistanceTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() != HEADER_SIZE + PAYLOAD_SIZE){
+                throw new IOException("unexpected table size " + channel.size());
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if(map.getInt() != MAGIC) throw new IOException("not a distance table");
+            if(map.getInt() != VERSION) throw new IOException("unsupported table version");
+            if(map.getLong() != EIGHT_PUZZLE.getGoalLow()) throw new IOException("table was built for another goal");
+            if(map.getInt() != PermutationRank.STATE_COUNT) throw new IOException("unexpected entry count");
+            long checksum = map.getLong();
+
+            ByteBuffer payload = map.slice();
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if(crc.getValue() != checksum) throw new IOException("checksum mismatch");
+
+            return new DistanceTable(payload);
+        }
+    }
+
+    // method to run a breadth-first search backwards from the goal on every core and pack every distance mod 3
+    static byte[] build(){
+        ParallelBFS bfs = new ParallelBFS(Runtime.getRuntime().availableProcessors());
+        bfs.explore(EIGHT_PUZZLE.getGoalLow());
+        return DistanceTable.pack(bfs.getDepths());
+    }
+
+    // method to pack the distance of every rank mod 3, four entries per byte
+    static byte[] pack(byte[] distance){
+        byte[] payload = new byte[PAYLOAD_SIZE];
+        for(int rank=0; rank<PermutationRank.STATE_COUNT; rank++){
+            payload[rank >>> 2] |= (distance[rank] % 3) << ((rank & 3) << 1);
+        }
+        return payload;
+    }
+
+    static void write(Path file, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + PAYLOAD_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(EIGHT_PUZZLE.getGoalLow())
+              .putInt(PermutationRank.STATE_COUNT).putLong(crc.getValue()).put(payload);
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) channel.write(buffer);
+        }
+    }
+
+    // returns the distance to the goal mod 3 of a ranked board
+    int entry(int rank){
+        return (this.entries.get(rank >>> 2) >>> ((rank & 3) << 1)) & 3;
+    }
+
+    // method to write an optimal solution for a solvable board into moves (at least MAX_DEPTH long).
+    // Returns the number of moves written.
+    int solve(long board, char[] moves){
+        return this.walk(board, moves);
+    }
+
+    // method to get the exact number of moves between a solvable board and the goal
+    int distance(long board){
+        return this.walk(board, null);
+    }
+
+    // follows the distance gradient down to the goal, recording the moves when a buffer is given
+    private int walk(long board, char[] moves){
+        int emptyIndex = 0;
+        while(State.tileAt(board, emptyIndex) != 0) emptyIndex++;
+
+        int length = 0;
+        int current = this.entry(PermutationRank.rank(board));
+        while(board != EIGHT_PUZZLE.getGoalLow()){
+            int downhill = (current + 2) % 3;
+            for(int direction=0; direction<4; direction++){
+                int target = EIGHT_PUZZLE.moveTarget(emptyIndex, DIRECTIONS[direction]);
+                if(target < 0) continue;
+                long next = State.moveBlank(board, emptyIndex, target);
+                if(this.entry(PermutationRank.rank(next)) == downhill){
+                    if(moves != null) moves[length] = DIRECTIONS[direction];
+                    length++;
+                    board = next;
+                    emptyIndex = target;
+                    current = downhill;
+                    break;
+                }
+            }
+        }
+        return length;
+    }
+}
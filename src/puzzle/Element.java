@@ -1,5 +1,4 @@
 package puzzle;
-import java.util.Arrays;
 
 import javafx.event.EventHandler;
 import javafx.scene.image.Image;
@@ -35,6 +34,12 @@ public class Element {
     public final static String SEVEN_TYPE = "7";
     public final static String EIGHT_TYPE = "8";
 
+    // image and type of each tile value
+    private final static Image[] IMAGES = {ZERO_IMAGE, ONE_IMAGE, TWO_IMAGE, THREE_IMAGE, FOUR_IMAGE,
+            FIVE_IMAGE, SIX_IMAGE, SEVEN_IMAGE, EIGHT_IMAGE};
+    private final static String[] TYPES = {ZERO_TYPE, ONE_TYPE, TWO_TYPE, THREE_TYPE, FOUR_TYPE,
+            FIVE_TYPE, SIX_TYPE, SEVEN_TYPE, EIGHT_TYPE};
+
     public Element(String type, GameBoard gameStage) { // Note: an ELEMENT has an imgView (to set up an Image)
 		this.type = type;
 		this.gameStage = gameStage;
@@ -95,6 +100,13 @@ public class Element {
 		this.col = j;
 	}
 
+	// method to show another tile value on this cell, keeping the same ImageView
+	void showTile(int tile){
+		this.type = Element.TYPES[tile];
+		this.img = Element.IMAGES[tile];
+		this.imgView.setImage(this.img);
+	}
+
 	// method to change image of an Element
 	private void changeImage(Element element, Image image) {
 		this.imgView.setImage(image);
@@ -196,7 +208,7 @@ public class Element {
 					// Printing the next state
 					System.out.println("---New State---");
 					gameStage.printPuzzle(gameStage.getGameBoard());
-					if(Arrays.deepEquals(gameStage.getGameBoard(), GameBoard.goalPuzzle)){
+					if(GameBoard.isGoal(gameStage.getGameBoard())){
 						gameStage.setWinPrompt("Congrats! You Won!");
 						System.out.println("Congrats! You Won!");
 					} else{
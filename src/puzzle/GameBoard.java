@@ -1,20 +1,14 @@
 package puzzle;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Formatter;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
+import javafx.animation.Animation;
+import javafx.animation.TranslateTransition;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.scene.Group;
 import javafx.scene.Scene;
@@ -22,6 +16,7 @@ import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.paint.Color;
@@ -30,6 +25,7 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 public class GameBoard {
     // Application components
@@ -44,20 +40,25 @@ public class GameBoard {
     private Text pathCostText;
     private Boolean noLongerClickable;
     private Button solutionBtn;
+    private Button cancelBtn;
+    private Text progressText;  // live counters of the running solve
 
     // Puzzle components
 	private GridPane map;
 	private int[][] gameBoard;
     private Integer pathCost;
     private String algoChoice;
+    private Heuristic heuristic;    // the heuristic used for h when solving
     private String puzzlePrompt; // this holds the prompt whether or not the puzzle is solvable
     private State initState;    // this holds the initial puzzle board
-    private ArrayList<Element> pieceCells;
+    private ArrayList<Element> pieceCells;  // one per cell in reading order, kept for the whole session
     private ArrayList<Character> solution;  // This should hold the expected solution for the initial puzzle
     private ArrayList<State> trackStates;
-    private ArrayList<State> shownStates;
+    private int shownIndex;                 // position in trackStates of the state on the board
+    private TranslateTransition slide;      // moves a tile into place when a solution step is played
+    private static SolutionCache solutionCache;   // loaded on the first solve, saved after each one
+    private SearchControl runningSolve;     // the solve running in the background, or null
 
-    public final static int[][] goalPuzzle = { {1,2,3}, {4,5,6}, {7,8,0}}; // This is the actual solution for the 8-puzzle game
 
     // GUI and GridPane size specifications
     public final static int MAX_CELLS = 9;
@@ -69,6 +70,7 @@ public class GameBoard {
     public final static int CELL_HEIGHT = 70;
     public final static int WINDOW_WIDTH = 400;
     public final static int WINDOW_HEIGHT = 500;
+    public final static Duration SLIDE_DURATION = Duration.millis(150);
 
     // Constructor
 	public GameBoard() {
@@ -80,9 +82,11 @@ public class GameBoard {
 		this.pieceCells = new ArrayList<Element>(); // List to hold the pattern of the Grid Pane
         this.solution = new ArrayList<Character>(); // List to hold the action movements for the puzzle
         this.trackStates = new ArrayList<State>();
-        this.shownStates = new ArrayList<State>();
+        this.slide = new TranslateTransition(GameBoard.SLIDE_DURATION);
+        this.slide.setToX(0); this.slide.setToY(0);
         this.noLongerClickable = false;
 		this.gameBoard = new int[GameBoard.MAP_NUM_ROWS][GameBoard.MAP_NUM_COLS];
+        this.heuristic = Heuristic.forName(Heuristic.MANHATTAN, PuzzleSize.of(GameBoard.MAP_NUM_COLS));
 
 	}
 
@@ -190,12 +194,18 @@ public class GameBoard {
         this.setSolBtn();
         // Adding a drop down list or choice box for the algorithms
         ChoiceBox<String> solutionBox = new ChoiceBox<>();
-        solutionBox.getItems().addAll("BFS", "DFS", "A*");
-        solutionBox.setValue("BFS"); solutionBox.setStyle("-fx-font: 20px \"Tw Cen MT\";");
+        solutionBox.getItems().addAll(Solver.ALGORITHMS);
+        solutionBox.setValue(Solver.BFS); solutionBox.setStyle("-fx-font: 20px \"Tw Cen MT\";");
         solutionBox.setLayoutX(90); solutionBox.setLayoutY(350);
+
+        // Adding a choice box for the heuristic used by A* and IDA*
+        ChoiceBox<String> heuristicBox = new ChoiceBox<>();
+        heuristicBox.getItems().addAll(Heuristic.MANHATTAN, Heuristic.LINEAR_CONFLICT, Heuristic.WALKING_DISTANCE);
+        heuristicBox.setValue(Heuristic.MANHATTAN); heuristicBox.setStyle("-fx-font: 14px \"Tw Cen MT\";");
+        heuristicBox.setLayoutX(90); heuristicBox.setLayoutY(310);
         
-        // Extracting the values of the choice box
-        this.solutionBtn.setOnAction(e -> getChoice(solutionBox));
+        // Extracting the values of the choice boxes
+        this.solutionBtn.setOnAction(e -> getChoice(solutionBox, heuristicBox));
 
         // Adding a select file button
         Font btnFont = Font.font("Tw Cen MT",FontWeight.NORMAL,16);
@@ -211,7 +221,7 @@ public class GameBoard {
         // set stage elements here
         this.root.getChildren().add(this.canvas);
         this.root.getChildren().add(this.map);
-        this.root.getChildren().addAll(solutionBtn, solutionBox, selectBtn, resetBtn);
+        this.root.getChildren().addAll(solutionBtn, solutionBox, heuristicBox, selectBtn, resetBtn);
 
         this.stage.setTitle("8-Puzzle Game");
         this.stage.setScene(this.scene);
@@ -222,8 +232,6 @@ public class GameBoard {
     // method to set new stage based on new input file
     private void modifyStage(Stage stage){
         this.stage = stage;
-        this.pieceCells.clear();
-        this.map.getChildren().clear();
         this.noLongerClickable = false;
 
         this.createMap(this.gameBoard);
@@ -237,12 +245,18 @@ public class GameBoard {
         this.setSolBtn();
         // Adding a drop down list or choice box for the algorithms
         ChoiceBox<String> solutionBox = new ChoiceBox<>();
-        solutionBox.getItems().addAll("BFS", "DFS", "A*");
-        solutionBox.setValue("BFS"); solutionBox.setStyle("-fx-font: 20px \"Tw Cen MT\";");
+        solutionBox.getItems().addAll(Solver.ALGORITHMS);
+        solutionBox.setValue(Solver.BFS); solutionBox.setStyle("-fx-font: 20px \"Tw Cen MT\";");
         solutionBox.setLayoutX(90); solutionBox.setLayoutY(350);
+
+        // Adding a choice box for the heuristic used by A* and IDA*
+        ChoiceBox<String> heuristicBox = new ChoiceBox<>();
+        heuristicBox.getItems().addAll(Heuristic.MANHATTAN, Heuristic.LINEAR_CONFLICT, Heuristic.WALKING_DISTANCE);
+        heuristicBox.setValue(Heuristic.MANHATTAN); heuristicBox.setStyle("-fx-font: 14px \"Tw Cen MT\";");
+        heuristicBox.setLayoutX(90); heuristicBox.setLayoutY(310);
         
-        // Extracting the values of the choice box
-        this.solutionBtn.setOnAction(e -> getChoice(solutionBox));
+        // Extracting the values of the choice boxes
+        this.solutionBtn.setOnAction(e -> getChoice(solutionBox, heuristicBox));
 
         // Adding a select file button
         Font btnFont = Font.font("Tw Cen MT",FontWeight.NORMAL,16);
@@ -258,7 +272,7 @@ public class GameBoard {
         // set stage elements here
         this.root.getChildren().add(this.canvas);
         this.root.getChildren().add(this.map);
-        this.root.getChildren().addAll(solutionBtn, solutionBox, selectBtn, resetBtn);
+        this.root.getChildren().addAll(solutionBtn, solutionBox, heuristicBox, selectBtn, resetBtn);
 
         this.stage.setTitle("8-Puzzle Game");
         this.stage.setScene(this.scene);
@@ -320,70 +334,49 @@ public class GameBoard {
     // method to get the input values from the input file
     private void initGameBoard(){
      // Getting the input from the default file
-     InputStream is = Main.class.getResourceAsStream("inputFile.in");
-     String line = "";
-
-     int count = 0;
-
-     try {
-         BufferedReader br = new BufferedReader(new InputStreamReader(is));
-
-         while((line = br.readLine()) != null){
-             String[] strArray = line.split(" "); // strArray should hold the values per line (which is three values per row)
-
-             for(int i = 0; i < strArray.length; i++){
-                 int num = Integer.parseInt(strArray[i]); // type casting the string as integer
-
-                 this.gameBoard[count][i] = num;
-             }
-             count++;
-         }
-         // printing the extracted 3 x 3 array
-         printPuzzle(gameBoard);
-         
-     } catch (FileNotFoundException e) {
-         e.printStackTrace();
-     }
-     catch (IOException e) {
+     try (PuzzleParser parser = new PuzzleParser(Main.class.getResourceAsStream("inputFile.in"))) {
+         this.readGameBoard(parser);
+     } catch (IOException e) {
          e.printStackTrace();
      }
     }
 
     // method to modify initial gameboard
     private void changeGameBoard(String path){
-        String line = "";
-
-     int count = 0;
-
-     try {
-         try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            while((line = br.readLine()) != null){
-                 String[] strArray = line.split(" "); // strArray should hold the values per line (which is three values per row)
-
-                 for(int i = 0; i < strArray.length; i++){
-                     int num = Integer.parseInt(strArray[i]); // type casting the string as integer
-
-                     this.gameBoard[count][i] = num;
-                 }
-                 count++;
-             }
-        } catch (NumberFormatException e) {
-            e.printStackTrace();
-        }
-
-         // printing the extracted 3 x 3 array
-         printPuzzle(gameBoard);
-         
-     } catch (FileNotFoundException e) {
+     try (PuzzleParser parser = new PuzzleParser(path)) {
+         this.readGameBoard(parser);
+     } catch (IOException e) {
          e.printStackTrace();
      }
-     catch (IOException e) {
-         e.printStackTrace();
+    }
+
+    // method to take the first puzzle of a file as the gameboard. A malformed or non-3x3 puzzle keeps the current one.
+    private void readGameBoard(PuzzleParser parser) throws IOException {
+     if(!parser.next()){
+         System.out.println("No puzzle found in the file");
+         return;
      }
+     if(parser.getError() != null){
+         System.out.println("Invalid puzzle: " + parser.getError());
+         return;
+     }
+     if(parser.getSize().getWidth() != GameBoard.MAP_NUM_COLS){
+         System.out.println("Invalid puzzle: only " + GameBoard.MAP_NUM_ROWS + "x" + GameBoard.MAP_NUM_COLS + " puzzles can be played");
+         return;
+     }
+     this.gameBoard = parser.getSize().unpack(parser.getLow(), parser.getHigh());
+
+     // printing the extracted 3 x 3 array
+     printPuzzle(gameBoard);
     }
 
     // method to create 3x3 gameboard = 9 tiles. It assigns an Element in the pieceCells array based on the gameboard index.
+    // The Elements are only created once; a later board re-images them in place.
 	private void createMap(int[][] gBoard){
+        if(!this.pieceCells.isEmpty()){
+            this.showBoard(gBoard);
+            return;
+        }
 		for(int i=0;i<GameBoard.MAP_NUM_ROWS;i++){
 			for(int j=0;j<GameBoard.MAP_NUM_COLS;j++){
                 switch (gBoard[i][j]) {
@@ -431,6 +424,39 @@ public class GameBoard {
 		this.setGridPaneContents();
 	}
 
+    // method to show a whole board on the existing tiles, ending a slide that is still running
+    private void showBoard(int[][] gBoard){
+        this.stopSlide();
+        for(Element piece: this.pieceCells){
+            piece.showTile(gBoard[piece.getRow()][piece.getCol()]);
+        }
+    }
+
+    // method to play one move: the tile at cell 'from' slides into the empty cell 'to'. Only those two
+    // tiles are re-imaged, and the tile's new cell starts over its old one and is translated into place.
+    private void slideTile(int from, int to, int tile){
+        this.stopSlide();
+        Element source = this.pieceCells.get(from);
+        Element target = this.pieceCells.get(to);
+        source.showTile(0);
+        target.showTile(tile);
+
+        ImageView view = target.getImageView();
+        view.setTranslateX(source.getImageView().getLayoutX() - view.getLayoutX());
+        view.setTranslateY(source.getImageView().getLayoutY() - view.getLayoutY());
+        view.toFront();     // drawn over the empty tile it passes
+        this.slide.setNode(view);
+        this.slide.playFromStart();
+    }
+
+    // method to put a tile that is still sliding straight into place
+    private void stopSlide(){
+        if(this.slide.getStatus() != Animation.Status.RUNNING) return;
+        this.slide.stop();
+        this.slide.getNode().setTranslateX(0);
+        this.slide.getNode().setTranslateY(0);
+    }
+
 	// method to set the initial tile (Element) coordinates on the board and add it to the pieceCells
 	private void instantiateNode(Element node, int i, int j){
 		node.initRowCol(i, j);
@@ -466,329 +492,44 @@ public class GameBoard {
 	     }
 	}
 
-    // method to solve the puzzle using the Breadth-First Search algorithm
-    private State searchBFS() {
-        Queue<State> frontier = new LinkedList<>();
-        frontier.add(this.initState);
-
-        ArrayList<State> explored = new ArrayList<>();
-        State resultNode = this.initState;
-
-        while( frontier.size() != 0) {
-            State currentState = frontier.remove();
-            explored.add(currentState);
-
-            if(goalTest(currentState)) {
-                resultNode = currentState;
-                break;
-            }
-            else{
-                for(Character action: actions(currentState)){
-                    // Check if the next resulting state has already been expanded in the frontier or explored list.
-                    // If hasDup becomes true, it means that the resulting state has already been explored
-                    Boolean hasDup = false;
-
-                    for(State explore: explored){
-                        if(Arrays.deepEquals(explore.getTileValues(), result(currentState, action).getTileValues())){
-                            hasDup = true;
-                        }
-                    }
-                    for(State front: frontier){
-                        if(Arrays.deepEquals(front.getTileValues(), result(currentState, action).getTileValues())){
-                            hasDup = true;
-                        }
-                    }
-                    // If hasDup is false, then add it to the frontier
-                    if(!hasDup) frontier.add(result(currentState, action));
-                }
-            }
-        }
-        return resultNode;
-    }
-
-    // method to solve the puzzle using the Depth-First Search algorithm
-    private State searchDFS() {
-        Stack<State> frontier = new Stack<>();
-        frontier.add(this.initState);
-
-        ArrayList<State> explored = new ArrayList<>();
-        State resultNode = this.initState;
-
-        while( frontier.size() != 0) {
-            State currentState = frontier.pop();
-            explored.add(currentState);
-
-            if(goalTest(currentState)) {
-                resultNode = currentState;
-                break;
-            }
-            else{
-                for(Character action: actions(currentState)){
-                    // Check if the next resulting state has already been expanded in the frontier or explored list.
-                    // If hasDup becomes true, it means that the resulting state has already been explored
-                    Boolean hasDup = false;
-
-                    for(State explore: explored){
-                        if(Arrays.deepEquals(explore.getTileValues(), result(currentState, action).getTileValues())){
-                            hasDup = true;
-                        }
-                    }
-                    for(State front: frontier){
-                        if(Arrays.deepEquals(front.getTileValues(), result(currentState, action).getTileValues())){
-                            hasDup = true;
-                        }
-                    }
-                    // If hasDup is false, then add it to the frontier
-                    if(!hasDup) frontier.push(result(currentState, action));
-                }
-            }
-        }
-        return resultNode;
-    }
-
-     // method to solve the puzzle using the A* Search algorithm
-     private State searchAStar() {
-        Queue<State> openList = new LinkedList<>();
-        openList.add(this.initState);
-
-        ArrayList<State> closedList = new ArrayList<>();
-        State resultNode = this.initState; // buffer state to return
-
-        // debug
-        // Boolean cont = true;
-        // Scanner read = new Scanner(System.in);
-
-        while( openList.size() != 0) {
-            State bestNode = findMinF(openList);
-            openList.remove(bestNode);
-            closedList.add(bestNode);
-            // System.out.println("Openlist/frontier size: "+ openList.size());
-            // System.out.println("Current bestnode:");
-            // printPuzzle(bestNode.getTileValues());
-            // System.out.println("");
-
-            if(goalTest(bestNode)) {
-                resultNode = bestNode;
-                break;
-            }
-            else{
-                for(Character action: actions(bestNode)){
-                    // Check if the next resulting state has already been expanded in the openList or closedList list.
-                    // If hasDup becomes true, it means that the resulting state has already been closedList
-                    Boolean hasDup = false;
-                    Boolean lessFDup = false;
-                    State checkNode = result(bestNode, action);
-                    // System.out.println("Action: " + action);
-                    // printPuzzle(checkNode.getTileValues());
-
-                    for(State closed: closedList){
-                        if(Arrays.deepEquals(closed.getTileValues(), checkNode.getTileValues())){
-                            hasDup = true;
-                        }
-                    }
-                    for(State open: openList){
-                        boolean sameState = false;
-                        if(Arrays.deepEquals(open.getTileValues(), checkNode.getTileValues())){
-                            hasDup = true;
-                            sameState = true; // if sameState is true, that means a duplicate state is found
-                        }
-                        if(sameState && checkNode.getGValue() < open.getGValue()){
-                            lessFDup = true;    // if the checkNode has less g value, set lessFDup to true and add checkNode to openList
-                        }
-                    }
-
-                    // for(State open: openList){
-                    //     if(Arrays.deepEquals(open.getTileValues(), checkNode.getTileValues())
-                    //         && checkNode.getGValue() < open.getGValue() ){
-                    //         lessFDup = true;
-                    //     }
-                    // }
-
-                    if(lessFDup) {
-                        openList.add(checkNode);
-                    }
-                    // If hasDup is false, then add it to the openList
-                    else if(!hasDup) {
-                        openList.add(checkNode);
-                    }
-                }
-            }
-            // System.out.println("These are the current states in openlist:");
-            // for(State s: openList){
-            //     System.out.println("");
-            //     printPuzzle(s.getTileValues());
-            // }
-
-            // System.out.println("Continue?: ");
-            // cont = read.nextBoolean();
-        }
-        return resultNode;
-    }
-
-    State findMinF(Queue<State> openList){
-        State minStateF = this.initState; //buffer
-
-        Iterator<State> it = openList.iterator();
-            int min = Integer.MAX_VALUE;
-            while (it.hasNext()) {
-                State i = it.next();
-                min = Math.min(i.getFValue(), min);
-            }
-            for(State s: openList){
-                if(s.getFValue()==min){
-                    minStateF = s;
-                    break;
-                }
-            }
-            return minStateF;
-    }
-
-    // A method that returns true if the state, s, is the goal, and false otherwise. 
-    // Therefore, it will only return true if all the cells are ordered sequentially from Top-Bottom,
-    // Left-Right, with ascending values from 1-8 (such that the empty cell is located at 2,2).
-    private Boolean goalTest(State test){
-        Boolean isGoal = false;
-            if(Arrays.deepEquals(GameBoard.goalPuzzle, test.getTileValues())) isGoal = true;
-        return isGoal;
-    }
-
-    // Given a state, s, the actions method will return a list of possible actions.
-    private ArrayList<Character> actions(State currentState){
-        ArrayList<Character> actionList = new ArrayList<>();
-        int row = currentState.getEmpRow(); // x-coordinate of the empty tile
-        int col = currentState.getEmpCol(); // y-coordinate of the empty tile
-
-        // Checking UP movement
-        if(row - 1 >= 0){
-            actionList.add(State.UP);
-        }
-        // Checking RIGHT movement
-        if(col + 1 <= 2){
-            actionList.add(State.RIGHT);
-        }
-        // Checking DOWN movement
-        if(row + 1 <= 2){
-            actionList.add(State.DOWN);
-        }
-        // Checking LEFT movement
-        if(col - 1 >= 0){
-            actionList.add(State.LEFT);
-        }
-
-        return actionList;
-    }
-
-    // Given a state, s, and an action, a, the result method will return the next state.
-    private State result(State currentState, Character action){
-        int[][] nextTileValues = new int[currentState.getTileValues().length][];
-        for(int i=0; i<currentState.getTileValues().length; i++){
-            nextTileValues[i] = currentState.getTileValues()[i].clone();
-        }
-
-            int new_empty_loc_row, new_empty_loc_col;
-
-        if(action == State.UP){
-
-            new_empty_loc_row = currentState.getEmpRow()-1;
-            new_empty_loc_col = currentState.getEmpCol();
-
-            // getting old value of next tile and putting it to the previous empty tile
-            nextTileValues[currentState.getEmpRow()][currentState.getEmpCol()] = nextTileValues[new_empty_loc_row][new_empty_loc_col];
-            // setting zero to the next tile
-            nextTileValues[new_empty_loc_row][new_empty_loc_col] = 0;
-        }
-        else if(action == State.RIGHT){
-
-            new_empty_loc_row = currentState.getEmpRow();
-            new_empty_loc_col = currentState.getEmpCol()+1;
-
-            // getting old value of next tile and putting it to the previous empty tile
-            nextTileValues[currentState.getEmpRow()][currentState.getEmpCol()] = nextTileValues[new_empty_loc_row][new_empty_loc_col];
-            // setting zero to the next tile
-            nextTileValues[new_empty_loc_row][new_empty_loc_col] = 0;
-
-        }
-        else if(action == State.DOWN){
-            new_empty_loc_row = currentState.getEmpRow()+1;
-            new_empty_loc_col = currentState.getEmpCol();
-
-            // getting old value of next tile and putting it to the previous empty tile
-            nextTileValues[currentState.getEmpRow()][currentState.getEmpCol()] = nextTileValues[new_empty_loc_row][new_empty_loc_col];
-            // setting zero to the next tile
-            nextTileValues[new_empty_loc_row][new_empty_loc_col] = 0;
-        }
-        else if(action == State.LEFT){
-            new_empty_loc_row = currentState.getEmpRow();
-            new_empty_loc_col = currentState.getEmpCol()-1;
-            
-
-            // getting old value of next tile and putting it to the previous empty tile
-            nextTileValues[currentState.getEmpRow()][currentState.getEmpCol()] = nextTileValues[new_empty_loc_row][new_empty_loc_col];
-            // setting zero to the next tile
-            nextTileValues[new_empty_loc_row][new_empty_loc_col] = 0;
-            
-        }
-        State nextState = new State(nextTileValues, action, currentState);
-        return nextState;
-    }
-
-    // A utility function to count inversions in given array 'arr[]'
-    static int getInvCount(int[] arr){
-        int inv_count = 0;
-        for (int i = 0; i < MAX_CELLS; i++)
-            for (int j = i + 1; j < MAX_CELLS; j++)
-                // Value 0 is used for empty space
-                if (arr[i] > 0 &&
-                                arr[j] > 0 && arr[i] > arr[j])
-                    inv_count++;
-        return inv_count;
-    }
-
-    // method to know if puzzle is solvable. This method returns true if 8-puzzle game is solvable.
-    // inversion is a case in which for two integers i<j, ith element in the array is larger than jth element.
-    // if the number of inversions is odd, the game is not solvable.
+    // method to know if puzzle is solvable. The inversion count (plus the row of the empty tile on
+    // even widths) must have the same parity as the goal's; see PuzzleSize.isSolvable().
     // From: https://www.geeksforgeeks.org/check-instance-8-puzzle-solvable
     static boolean isSolvable(int[][] puzzle){
-        int linearPuzzle[];
-        linearPuzzle = new int[MAX_CELLS];
-        int k = 0;
-        
-    // Converting 2-D puzzle to linear form
-        for(int i=0; i<3; i++)
-            for(int j=0; j<3; j++)
-                linearPuzzle[k++] = puzzle[i][j];
-        
-        // Count inversions in given 8 puzzle
-        int invCount = getInvCount(linearPuzzle);
-    
-        // return true if inversion count is even.
-        return (invCount % 2 == 0);
+        PuzzleSize size = PuzzleSize.of(puzzle.length);
+        return size.isSolvable(size.packLow(puzzle), size.packHigh(puzzle));
+    }
+
+    // method to know if a puzzle is the goal puzzle (1..8 in reading order, then the empty tile)
+    static boolean isGoal(int[][] puzzle){
+        PuzzleSize size = PuzzleSize.of(puzzle.length);
+        return size.isGoal(size.packLow(puzzle), size.packHigh(puzzle));
     }
 
     // method to print a 2x2 int array or puzzle
     void printPuzzle(int [][] puzzle){
-        for(int i=0;i<3;i++){
+        for(int i=0;i<puzzle.length;i++){
             System.out.println(Arrays.toString(puzzle[i])); // print final board content
         }
     }
 
-    // method to track the solution for the puzzle and add each action to the solution array
+    // method to track the solution for the puzzle and add each action to the solution array.
+    // The actions are read off the parent chain into a buffer sized by the goal's g, so deep DFS
+    // solutions take linear time and no stack.
     private void findParentAction(State node){
-        if(node.getAction() == State.actionNotApplicable){
-            Collections.reverse(this.solution);
-            // printing out the solution
-            System.out.print("Solution: ");
-            for(Character a: this.solution){
-                System.out.print(a+" ");
-            }
-            System.out.println("");
-            this.pathCost = this.solution.size();
-            return;
+        char[] actions = node.getPathActions();
+        this.solution.ensureCapacity(actions.length);
+        for(char a: actions){
+            this.solution.add(a);
         }
-        else{
-            this.solution.add(node.getAction());
-            findParentAction(node.getParent());
+        // printing out the solution
+        System.out.print("Solution: ");
+        StringBuilder line = new StringBuilder(2 * actions.length);
+        for(char a: actions){
+            line.append(a).append(' ');
         }
+        System.out.println(line);
+        this.pathCost = this.solution.size();
     }
 
     // method to clear solution list
@@ -796,19 +537,14 @@ public class GameBoard {
         this.solution.clear();
     }
 
-    // method to track the (solution) states and save it to trackStates
+    // method to track the (solution) states and save it to trackStates, the initial state included
     private void setTrackStates(State node){
-        if(node.getAction() == State.actionNotApplicable){
-            trackStates.add(initState);
-            Collections.reverse(this.trackStates);
-            // Adding the initial state also
-            System.out.println(this.trackStates.size());
-            return;
-        }
-        else{
-            this.trackStates.add(node);
-            setTrackStates(node.getParent());
+        State[] states = node.getPathStates();
+        this.trackStates.ensureCapacity(states.length);
+        for(State s: states){
+            this.trackStates.add(s);
         }
+        System.out.println(this.trackStates.size());
     }
 
     // method to set button for tracking solution states
@@ -826,11 +562,6 @@ public class GameBoard {
         this.trackStates.clear();
     }
 
-    // method to clear the shown states
-    private void clearShownStates(){
-        this.shownStates.clear();
-    }
-
     // method to set or update a value to an index in the gameBoard
     void setGameBoardValue(int row, int col, int val){
         this.gameBoard[row][col] = val;
@@ -866,27 +597,39 @@ public class GameBoard {
         return val;
     }
 
-    // method to check if the puzzle values are correct or not
-    private Boolean checkValidPuzzle(){
-        ArrayList<Integer> checkList = new ArrayList<>();
-        for(int i=0; i<GameBoard.MAP_NUM_ROWS; i++){
-            for(int j=0; j<GameBoard.MAP_NUM_COLS; j++){
-                checkList.add(this.gameBoard[i][j]);
-            }
-        }
-        ArrayList<Integer> fullList = new ArrayList<>();
-        fullList.add(0); fullList.add(1); fullList.add(2); fullList.add(3);
-        fullList.add(4); fullList.add(5); fullList.add(6); fullList.add(7); fullList.add(8);
-        if(checkList.containsAll(fullList)){
-            return true;
-        }
-        return false;
+    // method to check if the puzzle values are correct or not: each of 0..8 exactly once
+    private boolean checkValidPuzzle(){
+        return PuzzleSize.of(GameBoard.MAP_NUM_COLS).isValid(this.gameBoard);
     }
 
-    // extracting the solution box value
-    private void getChoice(ChoiceBox<String> solBox){
+    // extracting the solution and heuristic box values
+    private void getChoice(ChoiceBox<String> solBox, ChoiceBox<String> heuristicBox){
         String choice = solBox.getValue();
         this.algoChoice = choice;
+        this.heuristic = Heuristic.forName(heuristicBox.getValue(), PuzzleSize.of(GameBoard.MAP_NUM_COLS));
+    }
+
+    // method to get the solution cache, loading the saved one on first use
+    private static SolutionCache getSolutionCache(){
+        if(solutionCache == null){
+            try {
+                solutionCache = SolutionCache.load(SolutionCache.DEFAULT_PATH, SolutionCache.DEFAULT_CAPACITY);
+            } catch (IOException e) {
+                e.printStackTrace();
+                solutionCache = new SolutionCache(SolutionCache.DEFAULT_CAPACITY);
+            }
+        }
+        return solutionCache;
+    }
+
+    // method to save the solution cache so the next start is warm
+    private static void saveSolutionCache(){
+        try {
+            solutionCache.save(SolutionCache.DEFAULT_PATH);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        System.out.println(solutionCache);
     }
 
     // method to create solution file
@@ -910,30 +653,115 @@ public class GameBoard {
         }
     }
 
-    // method to return the row index of a number in the solution 2D array
-    static int getRowOfSolutionIndex(int val){
-        int rowIndex = 0;
-        for(int i=0; i<GameBoard.MAP_NUM_ROWS; i++){
-            for(int j=0; j<GameBoard.MAP_NUM_COLS; j++){
-                if(GameBoard.goalPuzzle[i][j] == val){
-                    rowIndex = i;
-                }
+    // method to present the solution that ends at the given goal node
+    private void showSolution(State temp){
+        // clearing the previous answers first
+        clearSolutionPrompt();
+        clearSolution();
+        // tracking the solution
+        findParentAction(temp);
+        setSolutionPrompt();
+
+        clearTrackedStates();
+        setTrackStates(temp);
+
+        setTransitionButton();
+        removeSolutionBtn();
+        setNoLongerClickable();
+        // the solution is played from its initial state, which the board shows until "Next"
+        this.shownIndex = 0;
+        showBoard(this.trackStates.get(0).getTileValues());
+
+        // creating the solution file
+        createSolutionFile();
+
+        System.out.println("Path Cost: "+pathCost+" ("+algoChoice+")");
+    }
+
+    // method to run the chosen search on a background thread, so the window stays responsive. While it
+    // runs, the Solution button is swapped for a Cancel button and the counters are shown below the board.
+    private void startSolve(){
+        String algorithm = this.algoChoice;
+        State start = this.initState;
+        // the solver re-roots the initial node so its h comes from the chosen heuristic. A search that
+        // would fill more than half the heap stops with "Budget exceeded" instead of freezing the app.
+        SearchLimits limits = new SearchLimits(0, Runtime.getRuntime().maxMemory() / 2, 0);
+        Solver solver = new Solver(this.heuristic, getSolutionCache(), limits);
+        SearchControl control = new SearchControl((expanded, frontier, elapsed) ->
+                Platform.runLater(() -> this.showProgress(expanded, frontier, elapsed)),
+                (cost, bound, elapsed) -> System.out.printf("Found cost %d, at most %.3f times optimal (%.1f ms)%n", cost, bound, elapsed / 1e6));
+        this.runningSolve = control;
+        this.setNoLongerClickable();
+        this.setSolvingControls();
+
+        Thread worker = new Thread(() -> {
+            SolverResult result = null;
+            try {
+                result = solver.solve(algorithm, start, control);
+                saveSolutionCache();
+            } catch (CancellationException e) {
+                System.out.println("Search cancelled");
+            } catch (RuntimeException | StackOverflowError | OutOfMemoryError e) {
+                e.printStackTrace();
             }
+            SolverResult finished = result;
+            Platform.runLater(() -> this.finishSolve(control, finished));
+        }, "solver");
+        worker.setDaemon(true);     // a running search never keeps the app from closing
+        worker.start();
+    }
+
+    // method to apply the outcome of a background solve, on the JavaFX Application Thread. The result
+    // is dropped if the board was reset or replaced while the search ran.
+    private void finishSolve(SearchControl control, SolverResult result){
+        if(this.runningSolve != control) return;
+        this.runningSolve = null;
+        this.removeSolvingControls();
+
+        if(result == null || result.getGoal() == null){
+            // cancelled or failed: the board can be played and solved again
+            this.noLongerClickable = false;
+            this.root.getChildren().add(this.solutionBtn);
+            if(control.isCancelled()) this.setWinPrompt("Search cancelled");
+            else if(result != null && result.isBudgetExceeded()) this.setWinPrompt("Budget exceeded");
+            else this.setWinPrompt("   Search failed");
+            return;
         }
-        return rowIndex;
+        System.out.println("Search stats: "+result.getStats());
+        if(result.getBound() > 0) System.out.printf("Suboptimality bound: %.3f%n", result.getBound());
+        showSolution(result.getGoal());
     }
 
-     // method to return the column index of a number in the solution 2D array
-    static int getColOfSolutionIndex(int val){
-        int colIndex = 0;
-        for(int i=0; i<GameBoard.MAP_NUM_ROWS; i++){
-            for(int j=0; j<GameBoard.MAP_NUM_COLS; j++){
-                if(GameBoard.goalPuzzle[i][j] == val){
-                    colIndex = j;
-                }
-            }
-        }
-        return colIndex;
+    // method to cancel a background solve whose result is no longer wanted
+    private void stopSolve(){
+        if(this.runningSolve == null) return;
+        this.runningSolve.cancel();
+        this.runningSolve = null;
+    }
+
+    // method to swap the Solution button for a Cancel button and add the progress line
+    private void setSolvingControls(){
+        Font btnFont = Font.font("Tw Cen MT",FontWeight.NORMAL,20);
+        this.cancelBtn = new Button("Cancel");
+        this.cancelBtn.setFont(btnFont); this.cancelBtn.setLayoutX(220); this.cancelBtn.setLayoutY(350);
+        this.addEventHandler(this.cancelBtn);
+
+        this.progressText = new Text("Searching...");
+        this.progressText.setFont(Font.font("Tw Cen MT",FontWeight.NORMAL,18));
+        this.progressText.setLayoutX(40); this.progressText.setLayoutY(430);
+
+        removeSolutionBtn();
+        this.root.getChildren().addAll(this.cancelBtn, this.progressText);
+    }
+
+    private void removeSolvingControls(){
+        this.root.getChildren().removeAll(this.cancelBtn, this.progressText);
+    }
+
+    // method to show the counters of the running solve (called at most ten times a second)
+    private void showProgress(long expanded, long frontier, long elapsedNanos){
+        if(this.progressText == null) return;
+        this.progressText.setText(String.format("Expanded %,d   Frontier %,d   %.1f s", expanded, frontier, elapsedNanos / 1e9));
     }
 
     // event handler for buttons
@@ -944,123 +772,24 @@ public class GameBoard {
 				switch(btn.getText()){
 				case "Solution":
                     removeWinPrompt();
-                    if(checkValidPuzzle()){
-                        if(algoChoice=="BFS" && isSolvable(gameBoard)){
-                            // Using the BFS algorithm
-                            State temp = searchBFS();
-
-                            // clearing the previous answers first
-                            clearSolutionPrompt();
-                            clearSolution();
-                            // tracking the solution
-                            findParentAction(temp);
-                            setSolutionPrompt();
-
-                            clearTrackedStates();
-                            clearShownStates();
-                            setTrackStates(temp);
-
-                            setTransitionButton();
-                            removeSolutionBtn();
-                            setNoLongerClickable();
-                            pieceCells.clear();
-                            map.getChildren().clear();
-
-                            // creating the solution file
-                            createSolutionFile();
-
-                            System.out.println("Path Cost: "+pathCost+" ("+algoChoice+")");
-                        }
-                        else if (algoChoice=="DFS" && isSolvable(gameBoard)){
-                            // Using the DFS algorithm
-                            State temp = searchDFS();
-    
-                            // clearing the previous answers first
-                            clearSolutionPrompt();
-                            clearSolution();
-                            // tracking the solution
-                            findParentAction(temp);
-                            setSolutionPrompt();
-
-                            clearTrackedStates();
-                            clearShownStates();
-                            setTrackStates(temp);
-
-                            setTransitionButton();
-                            removeSolutionBtn();
-                            setNoLongerClickable();
-                            pieceCells.clear();
-                            map.getChildren().clear();
-
-                            // creating the solution file
-                            createSolutionFile();
-
-                            System.out.println("Path Cost: "+pathCost+" ("+algoChoice+")");
-                        }
-                        else if(algoChoice=="A*" && isSolvable(gameBoard)){
-                            // Queue<State> test = new LinkedList<>();
-                            // test.add(result(initState, State.UP));
-                            // test.add(result(initState, State.RIGHT));
-                            // test.add(result(initState, State.DOWN));
-                            // test.add(result(initState, State.LEFT));
-                            // State best = findMinF(test);
-                            // printPuzzle(best.getTileValues());
-
-                            // System.out.println(result(initState, State.UP).getFValue());
-                            // System.out.println(result(initState, State.RIGHT).getFValue());
-                            // System.out.println(result(initState, State.DOWN).getFValue());
-                            // System.out.println(result(initState, State.LEFT).getFValue());
-
-                            // // Using the A* Search algorithm
-                            State temp = searchAStar();
-                            printPuzzle(temp.getTileValues());
-
-                            // clearing the previous answers first
-                            clearSolutionPrompt();
-                            clearSolution();
-                            // tracking the solution
-                            findParentAction(temp);
-                            setSolutionPrompt();
-
-                            clearTrackedStates();
-                            clearShownStates();
-                            setTrackStates(temp);
-
-                            setTransitionButton();
-                            removeSolutionBtn();
-                            setNoLongerClickable();
-                            pieceCells.clear();
-                            map.getChildren().clear();
-
-                            // creating the solution file
-                            createSolutionFile();
-
-                            System.out.println("Path Cost: "+pathCost+" ("+algoChoice+")");
-                        }
-                    }                    
+                    if(runningSolve == null && checkValidPuzzle() && isSolvable(gameBoard)){
+                        startSolve();
+                    }
 					break;
+                case "Cancel":
+                    if(runningSolve != null) runningSolve.cancel();
+                    break;
                 case "Next":
 
-                    // clearing the pieceCells and map images first before going to the next state
-                    // next button won't trigger if tracked states and shown states are equal in size
-                    if(trackStates.size() != shownStates.size()){
-                        pieceCells.clear();
-                        map.getChildren().clear();
-
-                        // if state has not been shown, add to shownStates and present its gameBoard
-                    for(State s: trackStates){
-                        if(!shownStates.contains(s)){
-                            shownStates.add(s);
-                            createMap(s.getTileValues());
-
-                            break;
-                        } else{
-                            // continue
-                        }
-                    }
+                    // stepping to the next tracked state: the tile that moved slides into the old empty cell
+                    if(shownIndex + 1 < trackStates.size()){
+                        State shown = trackStates.get(shownIndex);
+                        State next = trackStates.get(++shownIndex);
+                        int tile = PuzzleSize.tileAt(next.getBoard(), next.getBoardHigh(), shown.getEmptyIndex());
+                        slideTile(next.getEmptyIndex(), shown.getEmptyIndex(), tile);
                     }
                     // Tell user that solution sequence is done
-                    else if(trackStates.size() == shownStates.size()){
+                    else{
                         removeWinPrompt();
                         setWinPrompt("   End of solution!");
                     }
@@ -1071,6 +800,7 @@ public class GameBoard {
                 File f = fileChooser.showOpenDialog(null);
 
                 if(f != null){
+                    stopSolve();
                     String path = f.getAbsolutePath();
                     System.out.println(path);
                     setFilePath(path);
@@ -1081,9 +811,8 @@ public class GameBoard {
                 break;
 
                 case "Reset":
+                    stopSolve();
                     clearRoot();
-                    pieceCells.clear();
-                    map.getChildren().clear();
                     noLongerClickable = false;
                     setStage(stage);
                 break;
@@ -1098,7 +827,6 @@ public class GameBoard {
  *      References:
  *          isSolvable method: https://www.geeksforgeeks.org/check-instance-8-puzzle-solvable
  *          ArrayList of Characters to String: https://stackoverflow.com/a/23183963/15416780
- *          Finding minimum value (for F): https://stackoverflow.com/a/46355428/15416780
  *          File Chooser tutorial: https://www.youtube.com/watch?v=A6sA9KItwpY
  *          Creating files: https://www.youtube.com/watch?v=G0DfmD0KKyc
  */
\ No newline at end of file
@@ -0,0 +1,29 @@
+package puzzle;
+
+// An estimate of the number of moves left to reach the goal puzzle. Implementations never
+// overestimate (they are admissible), so A* and IDA* still return optimal solutions with any of them.
+// Each instance is built for one board width.
+public interface Heuristic {
+    public final static String MANHATTAN = "Manhattan";
+    public final static String LINEAR_CONFLICT = "Linear Conflict";
+    public final static String WALKING_DISTANCE = "Walking Distance";
+    public final static String[] HEURISTICS = {MANHATTAN, LINEAR_CONFLICT, WALKING_DISTANCE};
+
+    // method to evaluate a packed board from scratch
+    int estimate(long low, long high);
+
+    // method to evaluate a successor that differs from its parent only by 'tile' sliding from cell 'from'
+    // to cell 'to'. Heuristics that cannot be updated incrementally evaluate the board again.
+    default int update(int parentH, long low, long high, int tile, int from, int to){
+        return this.estimate(low, high);
+    }
+
+    // method to get the heuristic with the given display name for a board width.
+    // Throws IllegalArgumentException for a name that is not in HEURISTICS.
+    static Heuristic forName(String name, PuzzleSize size){
+        if(MANHATTAN.equals(name)) return new ManhattanHeuristic(size);
+        if(LINEAR_CONFLICT.equals(name)) return new LinearConflictHeuristic(size);
+        if(WALKING_DISTANCE.equals(name)) return new WalkingDistanceHeuristic(size);
+        throw new IllegalArgumentException("Unknown heuristic: " + name);
+    }
+}
@@ -0,0 +1,120 @@
+package puzzle;
+
+import java.util.ArrayList;
+
+// Iterative-Deepening A* over a single mutable board. Moves are applied and undone in place on the
+// packed words, and the only per-search memory is the move stack, so memory stays linear in depth.
+// Each iteration is a depth-first search bounded by f = g + h; the next bound is the smallest f
+// that exceeded the current one.
+public class IDAStar {
+    private final PuzzleSize size;
+    private final Heuristic heuristic;
+    private final SearchControl control;    // progress and cancellation, or null
+
+    private long board, boardHigh;  // the board being searched, modified in place
+    private int emptyIndex;         // cell of the empty tile on that board
+    private char[] path;            // path[g] is the move taken at depth g
+    private int nextBound;          // smallest f seen above the current bound
+    private int solutionLength;
+    private long nodesExpanded;     // nodes whose children were generated, over every iteration
+    private long nodesGenerated;    // children generated, over every iteration
+    private int peakDepth;          // deepest path explored
+
+    private final static char[] DIRECTIONS = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+
+    public IDAStar(PuzzleSize size, Heuristic heuristic){
+        this(size, heuristic, null);
+    }
+
+    IDAStar(PuzzleSize size, Heuristic heuristic, SearchControl control){
+        this.size = size;
+        this.heuristic = heuristic;
+        this.control = control;
+    }
+
+    // method to find an optimal list of moves from the given solvable board to the goal puzzle.
+    // Throws CancellationException if the control is cancelled.
+    ArrayList<Character> solve(long startBoard, long startBoardHigh){
+        this.board = startBoard;
+        this.boardHigh = startBoardHigh;
+        this.emptyIndex = this.size.findEmptyIndex(startBoard, startBoardHigh);
+        this.nodesExpanded = 0;
+        this.nodesGenerated = 0;
+        this.peakDepth = 0;
+
+        int h = this.heuristic.estimate(startBoard, startBoardHigh);
+        int bound = h;
+        while(true){
+            this.nextBound = Integer.MAX_VALUE;
+            if(this.path == null || this.path.length <= bound) this.path = new char[bound + 1];
+
+            if(this.search(0, h, bound, State.actionNotApplicable)) break;
+            bound = this.nextBound;
+        }
+
+        ArrayList<Character> moves = new ArrayList<>(this.solutionLength);
+        for(int i=0; i<this.solutionLength; i++){
+            moves.add(this.path[i]);
+        }
+        return moves;
+    }
+
+    long getNodesExpanded(){
+        return this.nodesExpanded;
+    }
+
+    long getNodesGenerated(){
+        return this.nodesGenerated;
+    }
+
+    // the longest path held at once, which is all the memory IDA* needs
+    int getPeakDepth(){
+        return this.peakDepth;
+    }
+
+    // depth-first search below the current f bound. Returns true once the goal is reached.
+    private boolean search(int g, int h, int bound, char previous){
+        int f = g + h;
+        if(f > bound){
+            this.nextBound = Math.min(this.nextBound, f);
+            return false;
+        }
+        if(this.size.isGoal(this.board, this.boardHigh)){
+            this.solutionLength = g;
+            return true;
+        }
+
+        this.nodesExpanded++;
+        if(g + 1 > this.peakDepth) this.peakDepth = g + 1;
+        if((this.nodesExpanded & SearchControl.CHECK_MASK) == 0 && this.control != null) this.control.checkpoint(this.nodesExpanded, g);
+        char inverse = State.inverse(previous);
+        for(char action: DIRECTIONS){
+            if(action == inverse) continue;    // undoing the last move can never help
+            int target = this.size.moveTarget(this.emptyIndex, action);
+            if(target < 0) continue;
+
+            // apply the move in place
+            int previousEmpty = this.emptyIndex;
+            int tile = this.slide(target, previousEmpty);
+            this.path[g] = action;
+            this.nodesGenerated++;
+
+            // only the tile that slid from target to previousEmpty changed
+            int nextH = this.heuristic.update(h, this.board, this.boardHigh, tile, target, previousEmpty);
+            if(this.search(g + 1, nextH, bound, action)) return true;
+
+            // undo it by sliding the same tile back
+            this.slide(previousEmpty, target);
+        }
+        return false;
+    }
+
+    // slides the tile at cell 'from' into the empty cell 'to' and returns the tile
+    private int slide(int from, int to){
+        int tile = PuzzleSize.tileAt(this.board, this.boardHigh, from);
+        this.board ^= PuzzleSize.lowBits(tile, from) ^ PuzzleSize.lowBits(tile, to);
+        this.boardHigh ^= PuzzleSize.highBits(tile, from) ^ PuzzleSize.highBits(tile, to);
+        this.emptyIndex = from;
+        return tile;
+    }
+}
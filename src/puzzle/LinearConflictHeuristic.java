@@ -0,0 +1,64 @@
+package puzzle;
+
+// Manhattan distance plus linear conflicts. Two tiles are in linear conflict when both are in their
+// goal row (or column) but in reversed order; one of them must leave the line and come back, which
+// costs two moves that Manhattan distance does not count. For each line, the fewest tiles whose removal
+// leaves the rest in goal order are counted, and every removed tile adds 2.
+public class LinearConflictHeuristic implements Heuristic {
+    private final PuzzleSize size;
+    private final ManhattanHeuristic manhattan;
+
+    public LinearConflictHeuristic(PuzzleSize size){
+        this.size = size;
+        this.manhattan = new ManhattanHeuristic(size);
+    }
+
+    public int estimate(long low, long high){
+        int width = this.size.getWidth();
+        int h = this.manhattan.estimate(low, high);
+
+        // conflicts along each row. The goal positions of the tiles already in their line are packed
+        // three bits each into an int, so no array is allocated per board.
+        for(int row=0; row<width; row++){
+            int line = 0, count = 0;
+            for(int col=0; col<width; col++){
+                int tile = PuzzleSize.tileAt(low, high, row*width + col);
+                if(tile != 0 && this.size.getGoalRow(tile) == row) line |= this.size.getGoalCol(tile) << (3 * count++);
+            }
+            h += 2 * LinearConflictHeuristic.tilesToRemove(line, count);
+        }
+
+        // conflicts along each column
+        for(int col=0; col<width; col++){
+            int line = 0, count = 0;
+            for(int row=0; row<width; row++){
+                int tile = PuzzleSize.tileAt(low, high, row*width + col);
+                if(tile != 0 && this.size.getGoalCol(tile) == col) line |= this.size.getGoalRow(tile) << (3 * count++);
+            }
+            h += 2 * LinearConflictHeuristic.tilesToRemove(line, count);
+        }
+        return h;
+    }
+
+    // method to count how many tiles must leave a line so the remaining ones are in goal order. That is
+    // the line length minus its longest increasing run of goal positions, found by trying every subset
+    // of the at most five tiles. goalPositions holds, three bits per tile in board order, the goal
+    // position along the line of each tile in it.
+    private static int tilesToRemove(int goalPositions, int count){
+        int longest = 0;
+        for(int subset=1; subset < (1 << count); subset++){
+            int kept = Integer.bitCount(subset);
+            if(kept <= longest) continue;
+            int previous = -1;
+            boolean increasing = true;
+            for(int i=0; i<count && increasing; i++){
+                if((subset & (1 << i)) == 0) continue;
+                int position = (goalPositions >>> (3 * i)) & 7;
+                increasing = position > previous;
+                previous = position;
+            }
+            if(increasing) longest = kept;
+        }
+        return count - longest;
+    }
+}
@@ -0,0 +1,51 @@
+package puzzle;
+
+// Sum of the Manhattan distances of every tile from its goal cell, read from a [tile][cell] table
+// built once per board width. A move changes one tile's distance, so successors are updated in O(1).
+public class ManhattanHeuristic implements Heuristic {
+    private final static int[][][] tables = new int[PuzzleSize.MAX_WIDTH + 1][][];
+
+    static {
+        for(int width=PuzzleSize.MIN_WIDTH; width<=PuzzleSize.MAX_WIDTH; width++){
+            tables[width] = ManhattanHeuristic.buildTable(PuzzleSize.of(width));
+        }
+    }
+
+    private final int cells;
+    private final int[][] distanceTable;
+
+    public ManhattanHeuristic(PuzzleSize size){
+        this.cells = size.getCells();
+        this.distanceTable = tables[size.getWidth()];
+    }
+
+    public int estimate(long low, long high){
+        int totalDistance = 0;
+        for(int cell=0; cell<this.cells; cell++){
+            totalDistance += this.distanceTable[PuzzleSize.tileAt(low, high, cell)][cell];
+        }
+        return totalDistance;
+    }
+
+    public int update(int parentH, long low, long high, int tile, int from, int to){
+        return parentH - this.distanceTable[tile][from] + this.distanceTable[tile][to];
+    }
+
+    // method to get the Manhattan distance of a tile at a cell from its goal cell (0 for the empty tile)
+    int tileDistance(int tile, int cell){
+        return this.distanceTable[tile][cell];
+    }
+
+    // method to build the [tile][cell] Manhattan distance table for a board width
+    static int[][] buildTable(PuzzleSize size){
+        int width = size.getWidth();
+        int[][] table = new int[size.getCells()][size.getCells()];
+        for(int tile=1; tile<size.getCells(); tile++){      // the empty tile does not count towards h
+            for(int cell=0; cell<size.getCells(); cell++){
+                int row = cell / width, col = cell % width;
+                table[tile][cell] = Math.abs(row - size.getGoalRow(tile)) + Math.abs(col - size.getGoalCol(tile));
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,157 @@
+package puzzle;
+
+// An indexed binary min-heap of States ordered by f value, used as the A* open list.
+// Every queued board maps to its heap slot, so when a cheaper path to a queued board is found
+// the queued node is replaced in place (decrease-key) instead of queueing a second copy.
+// For weighted A* the order is g + w*h instead, with w given in hundredths (WEIGHT_ONE is plain f).
+public class OpenList {
+    final static int WEIGHT_ONE = 100;
+
+    private State[] heap;
+    private long[] order;                       // insertion order of each slot, breaks ties between equal f values
+    private int size;
+    private long counter;
+    private BoardIndex slots;                   // packed board -> heap slot
+    private int weight;                         // w of the order g + w*h, in hundredths
+
+    private final static int INITIAL_CAPACITY = 64;
+
+    public OpenList(){
+        this(OpenList.WEIGHT_ONE);
+    }
+
+    OpenList(int weight){
+        this.weight = weight;
+        this.heap = new State[OpenList.INITIAL_CAPACITY];
+        this.order = new long[OpenList.INITIAL_CAPACITY];
+        this.size = 0;
+        this.counter = 0;
+        this.slots = new BoardIndex();
+    }
+
+    int size(){
+        return this.size;
+    }
+
+    boolean isEmpty(){
+        return this.size == 0;
+    }
+
+    // method to change w and restore the heap order under the new keys
+    void reweight(int weight){
+        this.weight = weight;
+        for(int slot=this.size/2 - 1; slot>=0; slot--){
+            this.siftDown(slot);
+        }
+    }
+
+    // the smallest unweighted f value in the open list, or Integer.MAX_VALUE if it is empty
+    int minFValue(){
+        int min = Integer.MAX_VALUE;
+        for(int slot=0; slot<this.size; slot++){
+            min = Math.min(min, this.heap[slot].getFValue());
+        }
+        return min;
+    }
+
+    // the smallest key g*WEIGHT_ONE + w*h in the open list, or Integer.MAX_VALUE if it is empty
+    int minKey(){
+        return this.size == 0 ? Integer.MAX_VALUE : this.key(this.heap[0]);
+    }
+
+    // returns the queued node for a board, or null if the board is not in the open list
+    State get(long board, long boardHigh){
+        int slot = this.slots.get(board, boardHigh);
+        return slot == BoardIndex.ABSENT ? null : this.heap[slot];
+    }
+
+    // method to queue a node. If its board is already queued, the node only replaces the queued one
+    // when it has a smaller g value. Returns true if the open list changed.
+    boolean add(State node){
+        int slot = this.slots.get(node.getBoard(), node.getBoardHigh());
+        if(slot != BoardIndex.ABSENT){
+            if(node.getGValue() >= this.heap[slot].getGValue()) return false;
+            // decrease-key: same board, smaller g (and f) so the node can only move up
+            this.heap[slot] = node;
+            this.siftUp(slot);
+            return true;
+        }
+
+        if(this.size == this.heap.length) this.grow();
+        this.heap[this.size] = node;
+        this.order[this.size] = this.counter++;
+        this.slots.put(node.getBoard(), node.getBoardHigh(), this.size);
+        this.size++;
+        this.siftUp(this.size - 1);
+        return true;
+    }
+
+    // method to remove and return the node with the smallest f value (oldest first among ties)
+    State poll(){
+        if(this.size == 0) return null;
+        State min = this.heap[0];
+        this.slots.remove(min.getBoard(), min.getBoardHigh());
+
+        this.size--;
+        if(this.size > 0){
+            this.place(0, this.heap[this.size], this.order[this.size]);
+            this.siftDown(0);
+        }
+        this.heap[this.size] = null;
+        return min;
+    }
+
+    private boolean less(int a, int b){
+        int fa = this.key(this.heap[a]), fb = this.key(this.heap[b]);
+        if(fa != fb) return fa < fb;
+        return this.order[a] < this.order[b];
+    }
+
+    private int key(State node){
+        return node.getGValue() * OpenList.WEIGHT_ONE + this.weight * node.getHValue();
+    }
+
+    private void place(int slot, State node, long nodeOrder){
+        this.heap[slot] = node;
+        this.order[slot] = nodeOrder;
+        this.slots.put(node.getBoard(), node.getBoardHigh(), slot);
+    }
+
+    private void swap(int a, int b){
+        State node = this.heap[a];
+        long nodeOrder = this.order[a];
+        this.place(a, this.heap[b], this.order[b]);
+        this.place(b, node, nodeOrder);
+    }
+
+    private void siftUp(int slot){
+        while(slot > 0){
+            int parent = (slot - 1) / 2;
+            if(!this.less(slot, parent)) break;
+            this.swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot){
+        while(true){
+            int left = 2 * slot + 1;
+            if(left >= this.size) break;
+            int child = left;
+            if(left + 1 < this.size && this.less(left + 1, left)) child = left + 1;
+            if(!this.less(child, slot)) break;
+            this.swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void grow(){
+        int capacity = this.heap.length * 2;
+        State[] nextHeap = new State[capacity];
+        long[] nextOrder = new long[capacity];
+        System.arraycopy(this.heap, 0, nextHeap, 0, this.size);
+        System.arraycopy(this.order, 0, nextOrder, 0, this.size);
+        this.heap = nextHeap;
+        this.order = nextOrder;
+    }
+}
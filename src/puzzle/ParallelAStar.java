@@ -0,0 +1,377 @@
+package puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// Hash-distributed A* (HDA*). The state space is split between the workers by hashing the packed board:
+// each worker owns the open list and the best-g table of its slice, and a generated node is sent to the
+// queue of the worker that owns its board. No lock is taken on the search path.
+//
+// The first goal found is only an incumbent: workers keep expanding until no node with f below the
+// incumbent's cost is left anywhere, so the returned path is optimal like a single-threaded A*.
+// Termination is detected with one counter of live nodes. A node is counted when it is created and
+// uncounted once it is discarded or expanded, and only after its children were counted, so the counter
+// reaches zero exactly when no node is left queued, buffered or open on any worker.
+//
+// A worker with nothing to expand parks, waiting a little longer each time it wakes up to no work. It
+// is unparked when nodes are sent to its queue or when the counter reaches zero, and the wait is
+// bounded so a cancel is still seen within a millisecond.
+//
+// A worker that fails stops the others, since its nodes would never be uncounted, and solve() rethrows
+// its failure once every worker has returned. The path is only rebuilt from workers that all finished.
+public class ParallelAStar {
+    private final static int FLUSH_SIZE = 32;       // nodes buffered for one worker before they are sent
+    private final static int FLUSH_INTERVAL = 16;   // expansions between flushes of every buffer
+    private final static long MIN_PARK_NANOS = 1_000L;         // first wait of an idle worker
+    private final static long MAX_PARK_NANOS = 1_000_000L;     // longest wait, bounds how late a cancel is seen
+    private final static char[] DIRECTIONS = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+
+    private final PuzzleSize size;
+    private final Heuristic heuristic;
+    private final int threads;
+    private final SearchControl control;    // polled by the workers for a cancel, or null
+
+    private Worker[] workers;
+    private final AtomicLong liveNodes = new AtomicLong();
+    private final AtomicInteger incumbent = new AtomicInteger();   // cost of the best goal found so far
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();   // first worker failure
+    private volatile boolean aborted;       // set when a worker fails or the solving thread is interrupted
+
+    public ParallelAStar(PuzzleSize size, Heuristic heuristic, int threads){
+        this(size, heuristic, threads, null);
+    }
+
+    ParallelAStar(PuzzleSize size, Heuristic heuristic, int threads, SearchControl control){
+        this.size = size;
+        this.heuristic = heuristic;
+        this.threads = threads;
+        this.control = control;
+    }
+
+    // method to find an optimal list of moves from the given solvable board to the goal puzzle.
+    // Throws CancellationException if the control is cancelled or the calling thread is interrupted, and
+    // rethrows the first exception or error of a worker.
+    ArrayList<Character> solve(long startBoard, long startBoardHigh){
+        this.incumbent.set(Integer.MAX_VALUE);
+        this.liveNodes.set(0);
+        this.failure.set(null);
+        this.aborted = false;
+        this.workers = new Worker[this.threads];
+        for(int i=0; i<this.threads; i++){
+            this.workers[i] = new Worker(i);
+        }
+
+        Node root = new Node(startBoard, startBoardHigh, this.size.findEmptyIndex(startBoard, startBoardHigh), 0,
+                this.heuristic.estimate(startBoard, startBoardHigh), 0L, 0L, State.actionNotApplicable);
+        this.liveNodes.incrementAndGet();
+        this.workers[this.owner(startBoard, startBoardHigh)].inbox.add(root);
+
+        Thread[] running = new Thread[this.threads];
+        try {
+            for(int i=0; i<this.threads; i++){
+                running[i] = new Thread(this.workers[i], "hda-worker-" + i);
+                running[i].start();
+            }
+        } catch (RuntimeException | Error e) {
+            // the workers already started must not outlive a solve that could not start them all
+            this.fail(e);
+        }
+
+        // every worker is joined even when this thread is interrupted, so none is still writing the
+        // tables that rebuildPath() reads
+        boolean interrupted = false;
+        for(Thread t: running){
+            while(t != null && t.isAlive()){
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    this.abort();
+                }
+            }
+        }
+        if(interrupted) Thread.currentThread().interrupt();
+
+        Throwable error = this.failure.get();
+        if(error instanceof RuntimeException) throw (RuntimeException) error;
+        if(error instanceof Error) throw (Error) error;
+        if(interrupted) throw new CancellationException("Search interrupted");
+        if(this.isCancelled()) throw new CancellationException("Search cancelled");
+        return this.rebuildPath();
+    }
+
+    // method to record the first failure of a worker and stop the others
+    private void fail(Throwable error){
+        this.failure.compareAndSet(null, error);
+        this.abort();
+    }
+
+    // method to make every worker return at its next check, waking the parked ones
+    private void abort(){
+        this.aborted = true;
+        for(Worker worker: this.workers) LockSupport.unpark(worker.thread);
+    }
+
+    // method to uncount discarded or expanded nodes, waking every worker when none are left
+    private void release(long nodes){
+        if(this.liveNodes.addAndGet(-nodes) == 0){
+            for(Worker worker: this.workers) LockSupport.unpark(worker.thread);
+        }
+    }
+
+    private boolean isCancelled(){
+        return this.control != null && this.control.isCancelled();
+    }
+
+    private boolean isStopped(){
+        return this.aborted || this.isCancelled();
+    }
+
+    // nodes expanded by every worker during the last solve
+    long getNodesExpanded(){
+        long total = 0;
+        for(Worker w: this.workers){
+            total += w.expanded;
+        }
+        return total;
+    }
+
+    // method to add the counters of every worker of the last solve. The peak open list is the sum of
+    // the workers' peaks, which is an upper bound on the total held at any one time.
+    void addStats(SearchStats stats){
+        for(Worker w: this.workers){
+            stats.nodesExpanded += w.expanded;
+            stats.nodesGenerated += w.generated;
+            stats.duplicatesPruned += w.duplicates;
+            stats.reopenings += w.reopened;
+            stats.peakOpen += w.peakOpen;
+            stats.peakClosed += w.records;
+        }
+    }
+
+    // the worker owning a board. The top bits of the hash are used, so the choice of owner is
+    // independent of the low bits that pick a slot inside the owner's BoardIndex.
+    private int owner(long low, long high){
+        long hash = BoardIndex.hash(low, high) & 0xFFFFFFFFL;
+        return (int) ((hash * this.threads) >>> 32);
+    }
+
+    // method to walk from the goal back to the start through the parent recorded by each board's owner.
+    // Every parent has a smaller recorded g than its child, so the walk always ends at the start board.
+    // Runs after every worker has stopped, so the tables are read without synchronisation.
+    private ArrayList<Character> rebuildPath(){
+        ArrayList<Character> moves = new ArrayList<>();
+        if(this.incumbent.get() == Integer.MAX_VALUE) return moves;
+
+        long low = this.size.getGoalLow(), high = this.size.getGoalHigh();
+        while(true){
+            Worker w = this.workers[this.owner(low, high)];
+            int slot = w.seen.get(low, high);
+            if(w.action[slot] == State.actionNotApplicable) break;
+            moves.add(w.action[slot]);
+            long parentLow = w.parentLow[slot];
+            high = w.parentHigh[slot];
+            low = parentLow;
+        }
+        Collections.reverse(moves);
+        return moves;
+    }
+
+    // a generated board on its way to, or waiting in, its owner's open list
+    private static class Node {
+        final long low, high;
+        final int emptyIndex, g, h;
+        final long parentLow, parentHigh;
+        final char action;
+
+        Node(long low, long high, int emptyIndex, int g, int h, long parentLow, long parentHigh, char action){
+            this.low = low;
+            this.high = high;
+            this.emptyIndex = emptyIndex;
+            this.g = g;
+            this.h = h;
+            this.parentLow = parentLow;
+            this.parentHigh = parentHigh;
+            this.action = action;
+        }
+
+        int f(){
+            return this.g + this.h;
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final int id;
+        // nodes sent by other workers; many producers, only this worker polls
+        final ConcurrentLinkedQueue<Node> inbox = new ConcurrentLinkedQueue<>();
+        volatile Thread thread;     // set once the worker runs, so senders can unpark it
+        // open list: smallest f first, deeper nodes first among equal f
+        private final PriorityQueue<Node> open = new PriorityQueue<>((a, b) -> a.f() != b.f() ? Integer.compare(a.f(), b.f()) : Integer.compare(b.g, a.g));
+        private final ArrayList<ArrayList<Node>> outboxes = new ArrayList<>();
+
+        // best g found for every board this worker owns, with the move that reached it
+        final BoardIndex seen = new BoardIndex();
+        int[] bestG = new int[1024];
+        long[] parentLow = new long[1024];
+        long[] parentHigh = new long[1024];
+        char[] action = new char[1024];
+        private int records;
+
+        long expanded, generated, duplicates, reopened, peakOpen;
+
+        Worker(int id){
+            this.id = id;
+            for(int i=0; i<ParallelAStar.this.threads; i++){
+                this.outboxes.add(new ArrayList<>());
+            }
+        }
+
+        public void run(){
+            this.thread = Thread.currentThread();
+            try {
+                this.search();
+            } catch (RuntimeException | Error e) {
+                ParallelAStar.this.fail(e);
+            }
+        }
+
+        // method to expand nodes until none is left anywhere or the search is stopped
+        private void search(){
+            int sinceFlush = 0;
+            long parkNanos = MIN_PARK_NANOS;
+            while(true){
+                Node received;
+                while((received = this.inbox.poll()) != null){
+                    this.receive(received);
+                }
+
+                Node best = this.open.peek();
+                if(best != null && best.f() >= ParallelAStar.this.incumbent.get()){
+                    // nothing left here can beat the incumbent
+                    int discarded = this.open.size();
+                    this.open.clear();
+                    ParallelAStar.this.release(discarded);
+                    best = null;
+                }
+                if(best == null){
+                    this.flushAll();
+                    if(ParallelAStar.this.liveNodes.get() == 0 || ParallelAStar.this.isStopped()) return;
+                    // nodes sent meanwhile or a count of zero unpark this thread, so the wait only
+                    // runs to its end when there is still nothing to do
+                    if(this.inbox.isEmpty()) LockSupport.parkNanos(this, parkNanos);
+                    parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                    continue;
+                }
+                parkNanos = MIN_PARK_NANOS;
+
+                this.open.poll();
+                this.expand(best);
+                ParallelAStar.this.release(1);   // after its children were counted
+
+                if(++sinceFlush == FLUSH_INTERVAL){
+                    this.flushAll();
+                    sinceFlush = 0;
+                    // every worker sees the cancel at its next flush or while idle, then returns
+                    if(ParallelAStar.this.isStopped()) return;
+                }
+            }
+        }
+
+        // method to accept a node for a board this worker owns. It is kept only if it reaches the board
+        // with a smaller g than any node seen so far.
+        private void receive(Node node){
+            int slot = this.seen.get(node.low, node.high);
+            if(slot != BoardIndex.ABSENT && this.bestG[slot] <= node.g){
+                ParallelAStar.this.release(1);
+                this.duplicates++;
+                return;
+            }
+            if(slot == BoardIndex.ABSENT){
+                if(this.records == this.bestG.length) this.grow();
+                slot = this.records++;
+                this.seen.put(node.low, node.high, slot);
+            }
+            else{
+                this.reopened++;
+            }
+            this.bestG[slot] = node.g;
+            this.parentLow[slot] = node.parentLow;
+            this.parentHigh[slot] = node.parentHigh;
+            this.action[slot] = node.action;
+            this.open.add(node);
+            if(this.open.size() > this.peakOpen) this.peakOpen = this.open.size();
+        }
+
+        private void expand(Node node){
+            // a cheaper node for the same board arrived after this one was queued
+            if(this.bestG[this.seen.get(node.low, node.high)] < node.g) return;
+
+            PuzzleSize size = ParallelAStar.this.size;
+            if(size.isGoal(node.low, node.high)){
+                int cost = ParallelAStar.this.incumbent.get();
+                while(node.g < cost && !ParallelAStar.this.incumbent.compareAndSet(cost, node.g)){
+                    cost = ParallelAStar.this.incumbent.get();
+                }
+                return;
+            }
+
+            this.expanded++;
+            char inverse = State.inverse(node.action);
+            for(char move: DIRECTIONS){
+                if(move == inverse) continue;    // undoing the last move can never help
+                int target = size.moveTarget(node.emptyIndex, move);
+                if(target < 0) continue;
+
+                int tile = PuzzleSize.tileAt(node.low, node.high, target);
+                long low = node.low ^ PuzzleSize.lowBits(tile, node.emptyIndex) ^ PuzzleSize.lowBits(tile, target);
+                long high = node.high ^ PuzzleSize.highBits(tile, node.emptyIndex) ^ PuzzleSize.highBits(tile, target);
+                int h = ParallelAStar.this.heuristic.update(node.h, low, high, tile, target, node.emptyIndex);
+                if(node.g + 1 + h >= ParallelAStar.this.incumbent.get()) continue;
+
+                Node child = new Node(low, high, target, node.g + 1, h, node.low, node.high, move);
+                this.generated++;
+                ParallelAStar.this.liveNodes.incrementAndGet();
+                int owner = ParallelAStar.this.owner(low, high);
+                if(owner == this.id){
+                    this.receive(child);
+                }
+                else{
+                    ArrayList<Node> outbox = this.outboxes.get(owner);
+                    outbox.add(child);
+                    if(outbox.size() >= FLUSH_SIZE) this.flush(owner);
+                }
+            }
+        }
+
+        private void flush(int owner){
+            ArrayList<Node> outbox = this.outboxes.get(owner);
+            if(outbox.isEmpty()) return;
+            Worker receiver = ParallelAStar.this.workers[owner];
+            receiver.inbox.addAll(outbox);
+            outbox.clear();
+            LockSupport.unpark(receiver.thread);
+        }
+
+        private void flushAll(){
+            for(int owner=0; owner<this.outboxes.size(); owner++){
+                this.flush(owner);
+            }
+        }
+
+        private void grow(){
+            int capacity = this.bestG.length * 2;
+            this.bestG = Arrays.copyOf(this.bestG, capacity);
+            this.parentLow = Arrays.copyOf(this.parentLow, capacity);
+            this.parentHigh = Arrays.copyOf(this.parentHigh, capacity);
+            this.action = Arrays.copyOf(this.action, capacity);
+        }
+    }
+}
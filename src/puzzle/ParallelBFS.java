@@ -0,0 +1,251 @@
+package puzzle;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Level-synchronous breadth-first search over the 8-puzzle, one whole layer at a time. The workers
+// split the current layer into contiguous chunks and claim every board they generate in a shared
+// bitmap indexed by PermutationRank, so each board is claimed by exactly one worker. A worker writes
+// the boards it claimed to its own next-layer buffer; the buffers are then concatenated at offsets
+// given by their sizes, so no lock is taken at any point.
+//
+// The search can stop at the layer that reaches the goal (solve) or run until every reachable board
+// is visited (explore), which gives the size of every layer and the depth of every board.
+//
+// Run on its own it prints the layer statistics of the whole 8-puzzle space, and can build or check
+// a distance table file:
+//     java puzzle.ParallelBFS [-t threads] [-build file] [-validate file]
+public class ParallelBFS {
+    private final static PuzzleSize EIGHT_PUZZLE = PuzzleSize.of(3);
+    private final static char[] DIRECTIONS = {State.UP, State.RIGHT, State.DOWN, State.LEFT};
+    private final static int MIN_CHUNK = 2048;          // layers below threads * MIN_CHUNK use fewer workers
+
+    private final int threads;
+    private final SearchControl control;                // progress and cancellation, checked between layers, or null
+
+    private AtomicLongArray visited;                    // one bit per rank
+    private byte[] reachedBy;                           // direction index of the move that first reached each rank
+    private byte[] depth;                               // layer of each rank, -1 if not reached
+    private long[][] buffers;                           // next-layer buffer of each worker
+    private int[] filled;                               // boards written to each buffer
+    private long nodesExpanded;
+    private ArrayList<Long> layerNanos;
+
+    public ParallelBFS(int threads){
+        this(threads, null);
+    }
+
+    ParallelBFS(int threads, SearchControl control){
+        this.threads = threads;
+        this.control = control;
+    }
+
+    // method to find an optimal list of moves from a solvable 8-puzzle board to the goal puzzle.
+    // Throws CancellationException if the control is cancelled.
+    char[] solve(long board){
+        long goal = EIGHT_PUZZLE.getGoalLow();
+        this.search(board, goal);
+
+        // walk back from the goal, undoing the move that first reached each board
+        int length = this.depth[PermutationRank.rank(goal)];
+        char[] moves = new char[length];
+        long current = goal;
+        for(int i=length-1; i>=0; i--){
+            char action = DIRECTIONS[this.reachedBy[PermutationRank.rank(current)]];
+            moves[i] = action;
+            int emptyIndex = ParallelBFS.emptyIndex(current);
+            current = State.moveBlank(current, emptyIndex, EIGHT_PUZZLE.moveTarget(emptyIndex, State.inverse(action)));
+        }
+        return moves;
+    }
+
+    // method to visit every board reachable from the given one. Returns the number of boards in each
+    // layer; getDepths() then holds the layer of every rank.
+    long[] explore(long board){
+        return this.search(board, 0L);
+    }
+
+    // depth of every rank after the last search, -1 for boards that were not reached
+    byte[] getDepths(){
+        return this.depth;
+    }
+
+    long getNodesExpanded(){
+        return this.nodesExpanded;
+    }
+
+    // time spent on each layer of the last search
+    long getLayerNanos(int layer){
+        return this.layerNanos.get(layer);
+    }
+
+    // method to expand layer after layer from a start board, stopping after the layer that reaches
+    // 'stop' (0 never matches a board, so the search runs to exhaustion)
+    private long[] search(long start, long stop){
+        this.visited = new AtomicLongArray((PermutationRank.STATE_COUNT + 63) / 64);
+        this.reachedBy = new byte[PermutationRank.STATE_COUNT];
+        this.depth = new byte[PermutationRank.STATE_COUNT];
+        Arrays.fill(this.depth, (byte) -1);
+        this.buffers = new long[this.threads][1024];
+        this.filled = new int[this.threads];
+        this.nodesExpanded = 0;
+        this.layerNanos = new ArrayList<>();
+
+        int startRank = PermutationRank.rank(start);
+        this.claim(startRank);
+        this.depth[startRank] = 0;
+
+        int stopRank = stop == 0L ? -1 : PermutationRank.rank(stop);
+        ArrayList<Long> layerSizes = new ArrayList<>();
+        long[] layer = {start};
+        ExecutorService pool = this.threads > 1 ? Executors.newFixedThreadPool(this.threads) : null;
+        try {
+            while(layer.length > 0){
+                layerSizes.add((long) layer.length);
+                if(stopRank >= 0 && this.depth[stopRank] >= 0) break;
+
+                if(this.control != null) this.control.checkpoint(this.nodesExpanded, layer.length);
+                long layerStart = System.nanoTime();
+                this.nodesExpanded += layer.length;
+                layer = this.expandLayer(layer, layerSizes.size(), pool);
+                this.layerNanos.add(System.nanoTime() - layerStart);
+            }
+        } finally {
+            if(pool != null) pool.shutdown();
+        }
+
+        long[] sizes = new long[layerSizes.size()];
+        for(int i=0; i<sizes.length; i++){
+            sizes[i] = layerSizes.get(i);
+        }
+        return sizes;
+    }
+
+    // method to expand one layer on the workers and merge their buffers into the next layer
+    private long[] expandLayer(long[] layer, int nextDepth, ExecutorService pool){
+        int workers = Math.max(1, Math.min(this.threads, layer.length / MIN_CHUNK));
+        if(pool == null || workers == 1){
+            this.expandChunk(0, layer, 0, layer.length, nextDepth);
+            workers = 1;
+        }
+        else{
+            ArrayList<Future<?>> chunks = new ArrayList<>();
+            for(int w=0; w<workers; w++){
+                int worker = w;
+                int from = (int) ((long) layer.length * w / workers);
+                int to = (int) ((long) layer.length * (w + 1) / workers);
+                chunks.add(pool.submit(() -> this.expandChunk(worker, layer, from, to, nextDepth)));
+            }
+            try {
+                for(Future<?> chunk: chunks){
+                    chunk.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException("Parallel BFS worker failed", e);
+            }
+        }
+
+        // each buffer lands at the sum of the sizes before it
+        int total = 0;
+        for(int w=0; w<workers; w++){
+            total += this.filled[w];
+        }
+        long[] next = new long[total];
+        int offset = 0;
+        for(int w=0; w<workers; w++){
+            System.arraycopy(this.buffers[w], 0, next, offset, this.filled[w]);
+            offset += this.filled[w];
+        }
+        return next;
+    }
+
+    // method run by one worker over layer[from, to)
+    private void expandChunk(int worker, long[] layer, int from, int to, int nextDepth){
+        long[] buffer = this.buffers[worker];
+        int count = 0;
+        for(int i=from; i<to; i++){
+            long board = layer[i];
+            int emptyIndex = ParallelBFS.emptyIndex(board);
+            for(int direction=0; direction<4; direction++){
+                int target = EIGHT_PUZZLE.moveTarget(emptyIndex, DIRECTIONS[direction]);
+                if(target < 0) continue;
+                long next = State.moveBlank(board, emptyIndex, target);
+                int rank = PermutationRank.rank(next);
+                if(!this.claim(rank)) continue;
+
+                // only the worker that claimed a rank writes its entries
+                this.reachedBy[rank] = (byte) direction;
+                this.depth[rank] = (byte) nextDepth;
+                if(count == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                buffer[count++] = next;
+            }
+        }
+        this.buffers[worker] = buffer;
+        this.filled[worker] = count;
+    }
+
+    // method to set the bit of a rank. Returns true for the one caller that set it.
+    private boolean claim(int rank){
+        int word = rank >>> 6;
+        long bit = 1L << (rank & 63);
+        while(true){
+            long current = this.visited.get(word);
+            if((current & bit) != 0) return false;
+            if(this.visited.compareAndSet(word, current, current | bit)) return true;
+        }
+    }
+
+    private static int emptyIndex(long board){
+        int emptyIndex = 0;
+        while(State.tileAt(board, emptyIndex) != 0) emptyIndex++;
+        return emptyIndex;
+    }
+
+    public static void main(String[] args){
+        int threads = Runtime.getRuntime().availableProcessors();
+        String build = null, validate = null;
+        for(int i=0; i+1<args.length; i+=2){
+            if(args[i].equals("-t")) threads = Integer.parseInt(args[i + 1]);
+            else if(args[i].equals("-build")) build = args[i + 1];
+            else if(args[i].equals("-validate")) validate = args[i + 1];
+        }
+
+        ParallelBFS bfs = new ParallelBFS(threads);
+        long startTime = System.nanoTime();
+        long[] layers = bfs.explore(EIGHT_PUZZLE.getGoalLow());
+        long elapsed = System.nanoTime() - startTime;
+
+        System.out.println("depth   boards  reached      ms");
+        long reached = 0;
+        for(int d=0; d<layers.length; d++){
+            reached += layers[d];
+            System.out.printf("%5d  %7d  %7d  %6.2f%n", d, layers[d], reached, bfs.getLayerNanos(d) / 1e6);
+        }
+        System.out.printf("%d boards in %d layers, %.1f ms on %d threads%n", reached, layers.length, elapsed / 1e6, threads);
+
+        try {
+            if(build != null){
+                DistanceTable.write(Paths.get(build), DistanceTable.pack(bfs.getDepths()));
+                System.out.println("Distance table written to " + build);
+            }
+            if(validate != null){
+                DistanceTable table = DistanceTable.load(Paths.get(validate));
+                byte[] depths = bfs.getDepths();
+                int mismatches = 0;
+                for(int rank=0; rank<PermutationRank.STATE_COUNT; rank++){
+                    if(table.entry(rank) != depths[rank] % 3) mismatches++;
+                }
+                System.out.println(mismatches == 0 ? "Distance table is valid" : "Distance table has " + mismatches + " wrong entries");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
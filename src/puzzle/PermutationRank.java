@@ -0,0 +1,74 @@
+package puzzle;
+
+// Perfect hash for 8-puzzle boards. A solvable board is ranked by the position of its empty tile
+// and the Lehmer code of the eight numbered tiles read left-to-right, top-to-bottom. Solvable boards
+// always have an even number of inversions, so the last free Lehmer digit is implied by the others
+// and dropping it (rank >> 1) leaves a dense index over the 9!/2 = 181,440 reachable states.
+// Boards with odd inversions are not reachable from the goal and must not be ranked.
+public class PermutationRank {
+    public final static int CELLS = 9;
+    public final static int TILE_COUNT = CELLS - 1;
+    public final static int TILE_RANKS = 20160;                                  // 8!/2 tile orders per empty position
+    public final static int STATE_COUNT = CELLS * TILE_RANKS;                    // 181,440 reachable boards
+
+    private final static int[] FACTORIAL = {1, 1, 2, 6, 24, 120, 720, 5040, 40320};
+
+    private PermutationRank(){}
+
+    // method to map a solvable packed board to its index in [0, STATE_COUNT)
+    static int rank(long board){
+        int emptyIndex = 0;
+        int seen = 0;           // bit v is set once tile v has been read
+        int lehmer = 0;
+        int position = 0;
+
+        for(int cell=0; cell<CELLS; cell++){
+            int tile = State.tileAt(board, cell);
+            if(tile == 0){
+                emptyIndex = cell;
+                continue;
+            }
+            // the Lehmer digit is the number of smaller tiles that have not been read yet
+            int digit = tile - 1 - Integer.bitCount(seen & ((1 << tile) - 1));
+            lehmer += digit * FACTORIAL[TILE_COUNT - 1 - position];
+            seen |= 1 << tile;
+            position++;
+        }
+        return emptyIndex * TILE_RANKS + (lehmer >> 1);
+    }
+
+    // method to rebuild the packed board with the given rank
+    static long unrank(int rank){
+        int emptyIndex = rank / TILE_RANKS;
+        int remainder = (rank % TILE_RANKS) << 1;
+        int unused = 0x1FE;     // tiles 1..8 still to be placed
+        int parity = 0;
+        long board = 0L;
+        int cell = 0;
+
+        for(int position=0; position<TILE_COUNT; position++){
+            int weight = FACTORIAL[TILE_COUNT - 1 - position];
+            int digit = remainder / weight;
+            remainder %= weight;
+            // the dropped digit is whatever makes the inversion count even
+            if(position == TILE_COUNT - 2) digit = parity & 1;
+            parity += digit;
+
+            int tile = PermutationRank.selectBit(unused, digit);
+            unused &= ~(1 << tile);
+
+            if(cell == emptyIndex) cell++;
+            board |= ((long) tile) << (4 * cell);
+            cell++;
+        }
+        return board;
+    }
+
+    // returns the index of the n-th (0-based) set bit of mask
+    private static int selectBit(int mask, int n){
+        for(int i=0; i<n; i++){
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
@@ -0,0 +1,297 @@
+package puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Streams puzzles out of an input without holding it on the heap. A file is memory-mapped one window
+// at a time (any other input is read through one direct buffer), and digits are decoded byte by byte
+// straight into packed boards, so no String or array is made per value or per line.
+//
+// A puzzle is either a single line holding all N*N values, or a block of N lines of N values. Values
+// are separated by spaces or tabs. Blank lines and lines starting with '#' separate puzzles. A
+// malformed puzzle is reported with the byte offset and line where the problem was found, and parsing
+// carries on with the next puzzle.
+//
+//     PuzzleParser parser = new PuzzleParser(path);
+//     while(parser.next()){
+//         if(parser.getError() != null) ... else ... parser.getSize(), parser.getLow(), parser.getHigh()
+//     }
+public class PuzzleParser implements Closeable {
+    private final static int WINDOW_SIZE = 1 << 26;         // bytes of a file mapped at a time
+    private final static int BUFFER_SIZE = 1 << 16;         // bytes of a stream read at a time
+    private final static int MAX_VALUE = 1 << 20;           // decoded values are capped here, which is out of range anyway
+    private final static int MAX_VALUES = PuzzleSize.MAX_WIDTH * PuzzleSize.MAX_WIDTH;
+
+    private final FileChannel file;                 // null when reading a stream
+    private final ReadableByteChannel stream;
+    private ByteBuffer buffer;
+    private long bufferOffset;                      // input offset of the buffer's first byte
+
+    // the line being read
+    private int lineNumber = 1;
+    private long lineOffset;
+    private boolean comment;
+    private boolean inValue, badValue;
+    private int value;
+    private long valueOffset;
+    private int valueCount;
+    private final int[] values = new int[MAX_VALUES];
+    private final long[] valueOffsets = new long[MAX_VALUES];
+    private String lineError;
+
+    // the block being read, if blockWidth is not 0
+    private int blockWidth;
+    private int rows;
+    private long blockLow, blockHigh;
+    private int blockSeen;                          // bit per value already placed
+    private long blockOffset;
+    private String blockError;
+
+    // the puzzle found by the last call to next()
+    private PuzzleSize size;
+    private long low, high;
+    private long offset;
+    private String error;
+
+    PuzzleParser(String path) throws IOException {
+        this.file = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        this.stream = null;
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    PuzzleParser(InputStream in){
+        this.file = null;
+        this.stream = Channels.newChannel(in);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.limit(0);
+    }
+
+    // the width of the last puzzle, or null if it was malformed
+    PuzzleSize getSize(){
+        return this.size;
+    }
+
+    long getLow(){
+        return this.low;
+    }
+
+    long getHigh(){
+        return this.high;
+    }
+
+    // input offset of the first byte of the last puzzle
+    long getOffset(){
+        return this.offset;
+    }
+
+    // why the last puzzle was rejected, or null if it is a valid board
+    String getError(){
+        return this.error;
+    }
+
+    // method to read up to the end of the next puzzle. Returns false at the end of the input.
+    boolean next() throws IOException {
+        while(true){
+            if(!this.buffer.hasRemaining() && !this.advance()){
+                // the last line may have no line break, and a block may still be open
+                this.endValue();
+                if((this.valueCount > 0 || this.lineError != null) && this.endLine()) return true;
+                if(this.blockWidth != 0){
+                    this.emitBlock(this.at(this.lineOffset, "expected " + this.blockWidth + " rows, got " + this.rows));
+                    return true;
+                }
+                return false;
+            }
+
+            int b = this.buffer.get();
+            if(this.comment){
+                if(b == '\n') this.comment = false;
+                else continue;
+            }
+
+            if(b >= '0' && b <= '9'){
+                if(!this.inValue){
+                    this.inValue = true;
+                    this.value = 0;
+                    this.valueOffset = this.position();
+                }
+                this.value = Math.min(this.value * 10 + (b - '0'), MAX_VALUE);
+            }
+            else if(b == ' ' || b == '\t' || b == '\r'){
+                this.endValue();
+            }
+            else if(b == '\n'){
+                this.endValue();
+                boolean found = this.valueCount > 0 || this.lineError != null ? this.endLine() : this.endSeparator();
+                this.lineNumber++;
+                this.lineOffset = this.position() + 1;
+                if(found) return true;
+            }
+            else if(b == '#' && !this.inValue && this.valueCount == 0 && this.lineError == null){
+                this.comment = true;
+            }
+            else{
+                // any other byte spoils the value it is part of
+                if(!this.inValue){
+                    this.inValue = true;
+                    this.value = 0;
+                    this.valueOffset = this.position();
+                }
+                if(this.lineError == null) this.lineError = this.at(this.position(), "unexpected " + PuzzleParser.describe(b));
+                this.badValue = true;
+            }
+        }
+    }
+
+    // method to map or read the next part of the input. Returns false at the end of the input.
+    private boolean advance() throws IOException {
+        if(this.file != null){
+            long start = this.bufferOffset + this.buffer.limit();
+            long remaining = this.file.size() - start;
+            if(remaining <= 0) return false;
+            this.bufferOffset = start;
+            this.buffer = this.file.map(FileChannel.MapMode.READ_ONLY, start, Math.min(remaining, WINDOW_SIZE));
+            return true;
+        }
+        this.bufferOffset += this.buffer.limit();
+        this.buffer.clear();
+        int read;
+        while((read = this.stream.read(this.buffer)) == 0);
+        this.buffer.flip();
+        return read > 0;
+    }
+
+    // input offset of the byte just read
+    private long position(){
+        return this.bufferOffset + this.buffer.position() - 1;
+    }
+
+    private void endValue(){
+        if(!this.inValue) return;
+        if(this.valueCount < MAX_VALUES){
+            this.values[this.valueCount] = this.badValue ? -1 : this.value;
+            this.valueOffsets[this.valueCount] = this.valueOffset;
+        }
+        this.valueCount++;
+        this.inValue = false;
+        this.badValue = false;
+    }
+
+    // method to handle a blank or comment line, which closes an unfinished block
+    private boolean endSeparator(){
+        if(this.blockWidth == 0) return false;
+        this.emitBlock(this.at(this.lineOffset, "expected " + this.blockWidth + " rows, got " + this.rows));
+        return true;
+    }
+
+    // method to handle a line of values. Returns true if it completed a puzzle.
+    private boolean endLine(){
+        int count = this.valueCount;
+        String lineError = this.lineError;
+        this.valueCount = 0;
+        this.lineError = null;
+
+        if(this.blockWidth == 0){
+            int width = PuzzleParser.widthOf(count);
+            if(width > 0){
+                // the whole puzzle on one line
+                this.startBlock(width);
+                this.blockError = lineError;
+                this.placeValues(0, count);
+                this.emitBlock(this.blockError);
+                return true;
+            }
+            if(count < PuzzleSize.MIN_WIDTH || count > PuzzleSize.MAX_WIDTH){
+                this.offset = this.lineOffset;
+                this.emit(null, 0L, 0L, this.at(this.lineOffset, count + " values is not a board row"));
+                return true;
+            }
+            this.startBlock(count);
+        }
+
+        if(count != this.blockWidth){
+            if(this.blockError == null) this.blockError = this.at(this.lineOffset, "expected " + this.blockWidth + " values, got " + count);
+        }
+        else{
+            if(this.blockError == null) this.blockError = lineError;
+            this.placeValues(this.rows * this.blockWidth, count);
+        }
+        this.rows++;
+        if(this.rows < this.blockWidth) return false;
+        this.emitBlock(this.blockError);
+        return true;
+    }
+
+    private void startBlock(int width){
+        this.blockWidth = width;
+        this.rows = 0;
+        this.blockLow = 0L;
+        this.blockHigh = 0L;
+        this.blockSeen = 0;
+        this.blockOffset = this.lineOffset;
+        this.blockError = null;
+    }
+
+    // method to pack the values of the current line into the block from a cell on, checking that each
+    // is in range and not seen before
+    private void placeValues(int firstCell, int count){
+        int cells = this.blockWidth * this.blockWidth;
+        for(int i=0; i<count && this.blockError == null; i++){
+            int tile = this.values[i];
+            if(tile >= cells){
+                this.blockError = this.at(this.valueOffsets[i], tile == MAX_VALUE ? "value is out of range" : "value " + tile + " is out of range");
+            }
+            else if(tile >= 0 && (this.blockSeen & (1 << tile)) != 0){
+                this.blockError = this.at(this.valueOffsets[i], "value " + tile + " appears twice");
+            }
+            else if(tile >= 0){
+                this.blockSeen |= 1 << tile;
+                this.blockLow |= PuzzleSize.lowBits(tile, firstCell + i);
+                this.blockHigh |= PuzzleSize.highBits(tile, firstCell + i);
+            }
+        }
+    }
+
+    private void emitBlock(String blockError){
+        this.offset = this.blockOffset;
+        if(blockError == null) this.emit(PuzzleSize.of(this.blockWidth), this.blockLow, this.blockHigh, null);
+        else this.emit(null, 0L, 0L, blockError);
+        this.blockWidth = 0;
+    }
+
+    private void emit(PuzzleSize size, long low, long high, String error){
+        this.size = size;
+        this.low = low;
+        this.high = high;
+        this.error = error;
+    }
+
+    // method to prefix a problem with where it was found
+    private String at(long offset, String problem){
+        return "byte " + offset + " (line " + this.lineNumber + "): " + problem;
+    }
+
+    // returns the board width if a line with this many values holds a whole puzzle, or 0
+    private static int widthOf(int values){
+        for(int width=PuzzleSize.MIN_WIDTH; width<=PuzzleSize.MAX_WIDTH; width++){
+            if(width * width == values) return width;
+        }
+        return 0;
+    }
+
+    private static String describe(int b){
+        return b >= 0x20 && b < 0x7F ? "'" + (char) b + "'" : String.format("byte 0x%02X", b & 0xFF);
+    }
+
+    public void close() throws IOException {
+        if(this.file != null) this.file.close();
+        else this.stream.close();
+    }
+}
@@ -0,0 +1,258 @@
+package puzzle;
+
+// Everything that depends on the width of an N x N sliding puzzle: the goal board, the goal cell of
+// each tile, the moves of the empty tile and the solvability rule. One instance per width is shared
+// by every state of that width.
+//
+// Boards are packed into two longs. The first word holds the low 4 bits of cells 0..15. The second
+// word holds the low 4 bits of cells 16..24 in bits 0..35 and the fifth bit of every cell at bit
+// 36 + cell. Boards up to 4x4 have no tile above 15, so their second word is always zero and the
+// first word alone identifies them.
+public class PuzzleSize {
+    public final static int MIN_WIDTH = 3;
+    public final static int MAX_WIDTH = 5;
+
+    // verdicts of validateAll()
+    final static byte VALID = 0;
+    final static byte INVALID = 1;
+    final static byte UNSOLVABLE = 2;
+
+    private final static int HIGH_PLANE_SHIFT = 36;
+    private final static PuzzleSize[] sizes = new PuzzleSize[MAX_WIDTH + 1];
+
+    static {
+        for(int width=MIN_WIDTH; width<=MAX_WIDTH; width++){
+            sizes[width] = new PuzzleSize(width);
+        }
+    }
+
+    private final int width;
+    private final int cells;
+    private final int[] goalCell;           // goal cell of each tile
+    private final long goalLow, goalHigh;
+    private final int goalEmptyIndex;
+    private final int goalParity;           // parity the solvability rule must match
+    private final int allTiles;             // one bit per tile value 0..cells-1
+    private final long usedLow, usedHigh;   // bits of the two words that cells of this width can use
+
+    private PuzzleSize(int width){
+        this.width = width;
+        this.cells = width * width;
+
+        // the goal puzzle: tiles 1..cells-1 in reading order, then the empty tile
+        this.goalCell = new int[this.cells];
+        long low = 0L, high = 0L;
+        for(int cell=0; cell<this.cells; cell++){
+            int tile = (cell + 1) % this.cells;
+            this.goalCell[tile] = cell;
+            low |= PuzzleSize.lowBits(tile, cell);
+            high |= PuzzleSize.highBits(tile, cell);
+        }
+        this.goalLow = low;
+        this.goalHigh = high;
+        this.goalEmptyIndex = this.goalCell[0];
+        this.goalParity = this.parity(low, high, this.goalEmptyIndex);
+
+        this.allTiles = (int) ((1L << this.cells) - 1);
+        int tileBits = this.cells > 16 ? 0x1F : 0xF;
+        long usedLow = 0L, usedHigh = 0L;
+        for(int cell=0; cell<this.cells; cell++){
+            usedLow |= PuzzleSize.lowBits(tileBits, cell);
+            usedHigh |= PuzzleSize.highBits(tileBits, cell);
+        }
+        this.usedLow = usedLow;
+        this.usedHigh = usedHigh;
+    }
+
+    // method to get the shared instance for a board width
+    static PuzzleSize of(int width){
+        if(width < MIN_WIDTH || width > MAX_WIDTH){
+            throw new IllegalArgumentException("Unsupported board width: " + width);
+        }
+        return sizes[width];
+    }
+
+    int getWidth(){
+        return this.width;
+    }
+
+    int getCells(){
+        return this.cells;
+    }
+
+    long getGoalLow(){
+        return this.goalLow;
+    }
+
+    long getGoalHigh(){
+        return this.goalHigh;
+    }
+
+    int getGoalEmptyIndex(){
+        return this.goalEmptyIndex;
+    }
+
+    int getGoalRow(int tile){
+        return this.goalCell[tile] / this.width;
+    }
+
+    int getGoalCol(int tile){
+        return this.goalCell[tile] % this.width;
+    }
+
+    boolean isGoal(long low, long high){
+        return low == this.goalLow && high == this.goalHigh;
+    }
+
+    // method to read the tile value stored at a cell of a packed board
+    static int tileAt(long low, long high, int cell){
+        int nibble = cell < 16 ? (int) (low >>> (4 * cell)) & 0xF : (int) (high >>> (4 * (cell - 16))) & 0xF;
+        return nibble | ((int) (high >>> (HIGH_PLANE_SHIFT + cell)) & 1) << 4;
+    }
+
+    // bits of the first word that store a tile at a cell
+    static long lowBits(int tile, int cell){
+        return cell < 16 ? ((long) (tile & 0xF)) << (4 * cell) : 0L;
+    }
+
+    // bits of the second word that store a tile at a cell
+    static long highBits(int tile, int cell){
+        long nibble = cell < 16 ? 0L : ((long) (tile & 0xF)) << (4 * (cell - 16));
+        return nibble | ((long) (tile >>> 4)) << (HIGH_PLANE_SHIFT + cell);
+    }
+
+    // methods to pack a 2D puzzle of this width
+    long packLow(int[][] puzzle){
+        long low = 0L;
+        for(int cell=0; cell<this.cells; cell++){
+            low |= PuzzleSize.lowBits(puzzle[cell / this.width][cell % this.width], cell);
+        }
+        return low;
+    }
+
+    long packHigh(int[][] puzzle){
+        long high = 0L;
+        for(int cell=0; cell<this.cells; cell++){
+            high |= PuzzleSize.highBits(puzzle[cell / this.width][cell % this.width], cell);
+        }
+        return high;
+    }
+
+    // method to unpack a board into a fresh 2D array
+    int[][] unpack(long low, long high){
+        int[][] puzzle = new int[this.width][this.width];
+        for(int cell=0; cell<this.cells; cell++){
+            puzzle[cell / this.width][cell % this.width] = PuzzleSize.tileAt(low, high, cell);
+        }
+        return puzzle;
+    }
+
+    // method to find the cell of the empty tile on a packed board
+    int findEmptyIndex(long low, long high){
+        for(int cell=0; cell<this.cells; cell++){
+            if(PuzzleSize.tileAt(low, high, cell) == 0) return cell;
+        }
+        return -1;
+    }
+
+    // method to get the cell the empty tile moves to for an action, or -1 if the move leaves the board
+    int moveTarget(int emptyIndex, char action){
+        int row = emptyIndex / this.width;
+        int col = emptyIndex % this.width;
+
+        if(action == State.UP){
+            return row - 1 >= 0 ? emptyIndex - this.width : -1;
+        }
+        else if(action == State.RIGHT){
+            return col + 1 < this.width ? emptyIndex + 1 : -1;
+        }
+        else if(action == State.DOWN){
+            return row + 1 < this.width ? emptyIndex + this.width : -1;
+        }
+        else if(action == State.LEFT){
+            return col - 1 >= 0 ? emptyIndex - 1 : -1;
+        }
+        return -1;
+    }
+
+    // method to know if a board can reach the goal. A horizontal move never changes the number of
+    // inversions. A vertical move jumps a tile over width - 1 others: on odd widths that keeps the
+    // inversion parity, and on even widths it flips it while the empty row changes by one. So the
+    // inversion parity (plus the empty row on even widths) must match the goal's.
+    boolean isSolvable(long low, long high){
+        return this.parity(low, high, this.findEmptyIndex(low, high)) == this.goalParity;
+    }
+
+    private int parity(long low, long high, int emptyIndex){
+        int parity = this.inversions(low, high);
+        if(this.width % 2 == 0) parity += emptyIndex / this.width;
+        return parity & 1;
+    }
+
+    // method to count the pairs of tiles that are in the wrong order (the empty tile is not counted).
+    // The cells are read from last to first, keeping one bit per tile already read, so the smaller
+    // tiles that come after a tile are one popcount away: linear in the cells, with no array.
+    int inversions(long low, long high){
+        int count = 0;
+        int after = 0;
+        for(int cell=this.cells-1; cell>=0; cell--){
+            int tile = PuzzleSize.tileAt(low, high, cell);
+            if(tile == 0) continue;
+            count += Integer.bitCount(after & ((1 << tile) - 1));
+            after |= 1 << tile;
+        }
+        return count;
+    }
+
+    // method to check that a packed board holds every tile 0..cells-1 exactly once
+    boolean isValid(long low, long high){
+        return this.verdict(low, high) != INVALID;
+    }
+
+    // method to check that a 2D puzzle of this width holds every tile 0..cells-1 exactly once
+    boolean isValid(int[][] puzzle){
+        if(puzzle.length != this.width) return false;
+        int seen = 0;
+        for(int[] row: puzzle){
+            if(row.length != this.width) return false;
+            for(int tile: row){
+                if(tile < 0 || tile >= this.cells) return false;
+                seen |= 1 << tile;
+            }
+        }
+        return seen == this.allTiles;
+    }
+
+    // method to validate a whole buffer of packed boards in one call. 'boards' holds the boards as
+    // (low, high) pairs; the verdict of board i (VALID, INVALID or UNSOLVABLE) goes to verdicts[i].
+    // Checks 'count' boards from board 'from' on and returns how many are valid and solvable.
+    int validateAll(long[] boards, int from, int count, byte[] verdicts){
+        int solvable = 0;
+        for(int i=from; i<from+count; i++){
+            byte verdict = this.verdict(boards[2 * i], boards[2 * i + 1]);
+            verdicts[i] = verdict;
+            if(verdict == VALID) solvable++;
+        }
+        return solvable;
+    }
+
+    // method to check a packed board in one pass over its cells: the tiles read so far are one bit
+    // each, which catches a repeated tile and gives the inversions as in inversions()
+    private byte verdict(long low, long high){
+        if((low & ~this.usedLow) != 0L || (high & ~this.usedHigh) != 0L) return INVALID;
+        int seen = 0;
+        int inversions = 0;
+        int emptyIndex = 0;
+        for(int cell=this.cells-1; cell>=0; cell--){
+            int tile = PuzzleSize.tileAt(low, high, cell);
+            if(tile == 0) emptyIndex = cell;
+            else inversions += Integer.bitCount(seen & ((1 << tile) - 2));     // bit 0 is the empty tile
+            seen |= 1 << tile;
+        }
+        if(seen != this.allTiles) return INVALID;
+
+        int parity = inversions;
+        if(this.width % 2 == 0) parity += emptyIndex / this.width;
+        return (parity & 1) == this.goalParity ? VALID : UNSOLVABLE;
+    }
+}
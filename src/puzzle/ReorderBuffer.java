@@ -0,0 +1,62 @@
+package puzzle;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// Puts results that finish out of order back into input order before handing them to a sink. At most
+// 'window' results can be pending at once: the reader blocks in reserve() until the oldest pending
+// result has been written, so memory stays flat however long the input is. If the sink fails, the
+// results after it are dropped and the failure is rethrown to the reader from reserve() and awaitAll().
+public class ReorderBuffer<T> {
+    private final Object[] slots;           // pending results, by sequence number modulo the window
+    private final Consumer<T> sink;
+    private final Semaphore free;           // slots not held by a pending result
+    private long nextToWrite;               // sequence number of the next result to write
+    private volatile RuntimeException failure;  // the first exception thrown by the sink, or null
+
+    ReorderBuffer(int window, Consumer<T> sink){
+        this.slots = new Object[window];
+        this.sink = sink;
+        this.free = new Semaphore(window);
+        this.nextToWrite = 0;
+    }
+
+    // method to claim a slot for the next sequence number, waiting while the window is full
+    void reserve() throws InterruptedException {
+        this.free.acquire();
+        this.rethrow();
+    }
+
+    // method to hand in the result of a reserved sequence number. Every result that is now next in
+    // order is written, by whichever thread completes the gap.
+    @SuppressWarnings("unchecked")
+    synchronized void complete(long sequence, T result){
+        this.slots[(int) (sequence % this.slots.length)] = result;
+        while(true){
+            int slot = (int) (this.nextToWrite % this.slots.length);
+            T next = (T) this.slots[slot];
+            if(next == null) break;
+            try {
+                if(this.failure == null) this.sink.accept(next);
+            } catch (RuntimeException e) {
+                this.failure = e;
+            } finally {
+                // the slot is given back even when the sink fails, so the reader never waits forever
+                this.slots[slot] = null;
+                this.nextToWrite++;
+                this.free.release();
+            }
+        }
+    }
+
+    // method to wait until every reserved result has been written
+    void awaitAll() throws InterruptedException {
+        this.free.acquire(this.slots.length);
+        this.free.release(this.slots.length);
+        this.rethrow();
+    }
+
+    private void rethrow(){
+        if(this.failure != null) throw this.failure;
+    }
+}
@@ -0,0 +1,65 @@
+package puzzle;
+
+import java.util.concurrent.CancellationException;
+
+// Lets another thread follow and stop a running solve. The searches call checkpoint() once every
+// CHECK_INTERVAL expansions (the parallel ones poll isCancelled() instead), so a cancel takes effect
+// within a few thousand nodes and the per-node cost is one masked compare. Progress is passed on at
+// most once per REPORT_INTERVAL_NANOS, on the searching thread.
+public class SearchControl {
+    final static int CHECK_INTERVAL = 1024;
+    final static int CHECK_MASK = CHECK_INTERVAL - 1;
+    private final static long REPORT_INTERVAL_NANOS = 100_000_000L;
+
+    // receives the progress of a running search
+    public interface Progress {
+        void update(long nodesExpanded, long frontier, long elapsedNanos);
+    }
+
+    // receives each better solution of an anytime search, with the factor by which its cost is at
+    // most the optimal cost
+    public interface Improvement {
+        void improved(int pathCost, double bound, long elapsedNanos);
+    }
+
+    private final Progress listener;        // null if nobody follows the progress
+    private final Improvement improvement;  // null if nobody follows the solutions
+    private final long startTime;
+    private long lastReport;
+    private volatile boolean cancelled;
+
+    public SearchControl(Progress listener){
+        this(listener, null);
+    }
+
+    public SearchControl(Progress listener, Improvement improvement){
+        this.listener = listener;
+        this.improvement = improvement;
+        this.startTime = System.nanoTime();
+        this.lastReport = this.startTime;
+    }
+
+    // method to ask the search to stop. Safe to call from any thread.
+    public void cancel(){
+        this.cancelled = true;
+    }
+
+    public boolean isCancelled(){
+        return this.cancelled;
+    }
+
+    // method called by the search between expansions. Throws CancellationException once cancelled.
+    void checkpoint(long nodesExpanded, long frontier){
+        if(this.cancelled) throw new CancellationException("Search cancelled");
+        if(this.listener == null) return;
+        long now = System.nanoTime();
+        if(now - this.lastReport < REPORT_INTERVAL_NANOS) return;
+        this.lastReport = now;
+        this.listener.update(nodesExpanded, frontier, now - this.startTime);
+    }
+
+    // method called by an anytime search each time it finds a better solution (never throttled)
+    void improved(int pathCost, double bound){
+        if(this.improvement != null) this.improvement.improved(pathCost, bound, System.nanoTime() - this.startTime);
+    }
+}
@@ -0,0 +1,67 @@
+package puzzle;
+
+// Bounds on one solve: a node budget (nodes expanded), a memory budget (bytes the search is estimated
+// to hold), the depth limit of the depth-limited searches and the deadline of the anytime search. A
+// search that runs past a budget stops with a "budget exceeded" result instead of running on or dying
+// with an OutOfMemoryError. ARA* instead returns its best solution so far once it has one.
+//
+// Budgets are checked with the progress checkpoints, every SearchControl.CHECK_INTERVAL expansions, so
+// a search may go up to that many nodes past its node budget. They apply to BFS, Bi-BFS, DFS, A*, DLS
+// and IDDFS; the other searches ignore them. A zero means no limit.
+public class SearchLimits {
+    public final static SearchLimits NONE = new SearchLimits(0, 0, 0, 0);
+
+    // estimated bytes per board held by the graph searches: the State itself plus its share of the
+    // frontier and the visited set
+    final static int BYTES_PER_STATE = 128;
+    // estimated bytes per level of the path kept by the depth-first searches
+    final static int BYTES_PER_LEVEL = 64;
+
+    // the longest optimal solutions: 31 moves on 3x3 and 80 on 4x4. Only bounds are known for 5x5.
+    private final static int[] DEFAULT_DEPTH = {0, 0, 0, 31, 80, 208};
+
+    private final long maxNodes;
+    private final long maxBytes;
+    private final int maxDepth;
+    private final long deadlineNanos;
+
+    public SearchLimits(long maxNodes, long maxBytes, int maxDepth){
+        this(maxNodes, maxBytes, maxDepth, 0);
+    }
+
+    public SearchLimits(long maxNodes, long maxBytes, int maxDepth, long deadlineNanos){
+        this.maxNodes = maxNodes;
+        this.maxBytes = maxBytes;
+        this.maxDepth = maxDepth;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    long getMaxNodes(){
+        return this.maxNodes;
+    }
+
+    long getMaxBytes(){
+        return this.maxBytes;
+    }
+
+    // the time after the start of a solve at which ARA* stops improving its solution, or 0 for none
+    long getDeadlineNanos(){
+        return this.deadlineNanos;
+    }
+
+    // method to get the depth limit of DLS (and the last limit IDDFS tries) for a board width. Without
+    // a set limit it is the longest optimal solution of that width, so a solvable board is always found.
+    int getDepthLimit(PuzzleSize size){
+        return this.maxDepth > 0 ? this.maxDepth : DEFAULT_DEPTH[size.getWidth()];
+    }
+
+    // method to stop a search that is over budget
+    void check(long nodesExpanded, long bytes){
+        if(this.maxNodes > 0 && nodesExpanded > this.maxNodes){
+            throw new BudgetExceededException(this.maxNodes + " nodes");
+        }
+        if(this.maxBytes > 0 && bytes > this.maxBytes){
+            throw new BudgetExceededException((this.maxBytes >> 20) + " MB");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package puzzle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// Counters and timings of one solve. The fields are plain longs bumped by the thread running the
+// search (the parallel searches add up their workers' counters once they have joined), so counting
+// costs one increment and can stay on.
+public class SearchStats {
+    private final static ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    long nodesGenerated;        // successor nodes built
+    long nodesExpanded;         // nodes whose successors were generated
+    long duplicatesPruned;      // successors dropped because their board was already reached as cheaply
+    long reopenings;            // boards queued again after they were reached with a larger g
+    long peakOpen;              // largest frontier or open list
+    long peakClosed;            // largest set of visited or expanded boards
+    long lookupNanos;           // phases of the solve: the solution cache lookup,
+    long searchNanos;           // the search itself,
+    long pathNanos;             // and reading the moves off the goal node
+    long allocatedBytes = -1;   // bytes allocated by the solving thread, or -1 if the JVM cannot tell
+
+    // methods to record the current size of the open and closed lists
+    void open(long size){
+        if(size > this.peakOpen) this.peakOpen = size;
+    }
+
+    void closed(long size){
+        if(size > this.peakClosed) this.peakClosed = size;
+    }
+
+    long getNodesGenerated(){
+        return this.nodesGenerated;
+    }
+
+    long getNodesExpanded(){
+        return this.nodesExpanded;
+    }
+
+    long getDuplicatesPruned(){
+        return this.duplicatesPruned;
+    }
+
+    long getReopenings(){
+        return this.reopenings;
+    }
+
+    long getPeakOpen(){
+        return this.peakOpen;
+    }
+
+    long getPeakClosed(){
+        return this.peakClosed;
+    }
+
+    long getLookupNanos(){
+        return this.lookupNanos;
+    }
+
+    long getSearchNanos(){
+        return this.searchNanos;
+    }
+
+    long getPathNanos(){
+        return this.pathNanos;
+    }
+
+    long getAllocatedBytes(){
+        return this.allocatedBytes;
+    }
+
+    public String toString(){
+        return String.format("generated=%d expanded=%d duplicates=%d reopenings=%d peakOpen=%d peakClosed=%d"
+                + " lookup=%.3fms search=%.3fms path=%.3fms allocated=%s",
+                this.nodesGenerated, this.nodesExpanded, this.duplicatesPruned, this.reopenings, this.peakOpen, this.peakClosed,
+                this.lookupNanos / 1e6, this.searchNanos / 1e6, this.pathNanos / 1e6,
+                this.allocatedBytes < 0 ? "n/a" : (this.allocatedBytes >> 10) + "KB");
+    }
+
+    // method to read the bytes allocated so far by the current thread, or -1 if the JVM cannot tell.
+    // Worker threads of the parallel searches are not included.
+    static long threadAllocatedBytes(){
+        if(threads instanceof com.sun.management.ThreadMXBean){
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+            if(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()){
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
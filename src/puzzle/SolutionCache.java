@@ -0,0 +1,173 @@
+package puzzle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// A bounded LRU cache of optimal solutions, keyed on the packed board and holding the moves as a
+// string ("UURDL..."). Storing a solved path also stores every board along it with the rest of the
+// path, since the suffix of an optimal path is itself optimal. One solve therefore warms as many
+// entries as the path has moves.
+//
+// Boards of different widths never share a packed key (a 3x3 board leaves cells 9..15 empty, which no
+// 4x4 board does, and only 5x5 boards use the second word), so one cache can hold every width.
+//
+// File layout (big-endian): magic, version, entry count, then per entry the two board words, the
+// number of moves and the moves packed 2 bits each, least recently used entry first.
+public class SolutionCache {
+    public final static String DEFAULT_PATH = "src/solutions.cache";
+    public final static int DEFAULT_CAPACITY = 100000;
+
+    private final static int MAGIC = 0x53434143;                     // "SCAC"
+    private final static int VERSION = 1;
+    private final static String MOVES = "URDL";                      // move -> 2-bit code
+
+    private final LinkedHashMap<BoardKey, String> entries;
+    private long hits, misses, evictions;
+
+    public SolutionCache(int capacity){
+        // access order makes the map's iteration order least recently used first
+        this.entries = new LinkedHashMap<BoardKey, String>(16, 0.75f, true){
+            protected boolean removeEldestEntry(Map.Entry<BoardKey, String> eldest){
+                if(size() <= capacity) return false;
+                SolutionCache.this.evictions++;
+                return true;
+            }
+        };
+    }
+
+    // returns the cached moves from a board to the goal, or null
+    synchronized String get(long low, long high){
+        String moves = this.entries.get(new BoardKey(low, high));
+        if(moves == null) this.misses++;
+        else this.hits++;
+        return moves;
+    }
+
+    // method to cache an optimal path and every suffix of it, keyed on the board it starts from
+    synchronized void putPath(PuzzleSize size, long low, long high, char[] moves){
+        String path = new String(moves);
+        int emptyIndex = size.findEmptyIndex(low, high);
+        for(int i=0; i<moves.length; i++){
+            this.entries.put(new BoardKey(low, high), path.substring(i));
+
+            // slide the tile at the move's target into the empty cell
+            int target = size.moveTarget(emptyIndex, moves[i]);
+            int tile = PuzzleSize.tileAt(low, high, target);
+            low ^= PuzzleSize.lowBits(tile, emptyIndex) ^ PuzzleSize.lowBits(tile, target);
+            high ^= PuzzleSize.highBits(tile, emptyIndex) ^ PuzzleSize.highBits(tile, target);
+            emptyIndex = target;
+        }
+    }
+
+    synchronized int size(){
+        return this.entries.size();
+    }
+
+    synchronized long getHits(){
+        return this.hits;
+    }
+
+    synchronized long getMisses(){
+        return this.misses;
+    }
+
+    synchronized long getEvictions(){
+        return this.evictions;
+    }
+
+    public synchronized String toString(){
+        return "Solution cache: " + this.entries.size() + " entries, " + this.hits + " hits, "
+                + this.misses + " misses, " + this.evictions + " evictions";
+    }
+
+    // method to load a cache file into a new cache. A missing file gives an empty cache.
+    static SolutionCache load(String path, int capacity) throws IOException {
+        SolutionCache cache = new SolutionCache(capacity);
+        Path file = Paths.get(path);
+        if(!Files.exists(file)) return cache;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() != MAGIC) throw new IOException("not a solution cache");
+            if(in.readInt() != VERSION) throw new IOException("unsupported solution cache version");
+            int count = in.readInt();
+            for(int i=0; i<count; i++){
+                long low = in.readLong();
+                long high = in.readLong();
+                int length = in.readUnsignedShort();
+                char[] moves = new char[length];
+                int packed = 0;
+                for(int m=0; m<length; m++){
+                    if((m & 3) == 0) packed = in.readUnsignedByte();
+                    moves[m] = MOVES.charAt((packed >>> ((m & 3) << 1)) & 3);
+                }
+                cache.entries.put(new BoardKey(low, high), new String(moves));
+            }
+        } catch (EOFException e) {
+            throw new IOException("solution cache is truncated", e);
+        }
+        cache.evictions = 0;        // entries dropped while loading into a smaller cache are not counted
+        return cache;
+    }
+
+    // method to write the cache to a file, least recently used entry first so a load keeps the order.
+    // The entries go to a temporary file next to the target, which then replaces it in one move, so a
+    // crash or a full disk never leaves a truncated cache behind.
+    synchronized void save(String path) throws IOException {
+        Path file = Paths.get(path).toAbsolutePath();
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(this.entries.size());
+                for(Map.Entry<BoardKey, String> entry: this.entries.entrySet()){
+                    String moves = entry.getValue();
+                    out.writeLong(entry.getKey().low);
+                    out.writeLong(entry.getKey().high);
+                    out.writeShort(moves.length());
+                    int packed = 0;
+                    for(int m=0; m<moves.length(); m++){
+                        packed |= MOVES.indexOf(moves.charAt(m)) << ((m & 3) << 1);
+                        if((m & 3) == 3 || m == moves.length() - 1){
+                            out.writeByte(packed);
+                            packed = 0;
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);     // only still there if the write or the move failed
+        }
+    }
+
+    // a packed board as a map key
+    private static class BoardKey {
+        final long low, high;
+
+        BoardKey(long low, long high){
+            this.low = low;
+            this.high = high;
+        }
+
+        public boolean equals(Object other){
+            if(!(other instanceof BoardKey)) return false;
+            BoardKey key = (BoardKey) other;
+            return key.low == this.low && key.high == this.high;
+        }
+
+        public int hashCode(){
+            return BoardIndex.hash(this.low, this.high);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Reads a binary solution file (see SolutionFileWriter for the layout). Records are fetched through
+// the offset index, so reading puzzle #N costs two positioned reads whatever the size of the file.
+//
+// Run on its own it exports the file as text result lines:
+//     java puzzle.SolutionFileReader <solution file> [puzzle number]
+public class SolutionFileReader implements Closeable {
+    private final FileChannel channel;
+    private final int count;
+    private final long indexOffset;
+
+    SolutionFileReader(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = this.readAt(0, SolutionFileWriter.FILE_HEADER_SIZE);
+            if(header.getInt() != SolutionFileWriter.MAGIC) throw new IOException("not a solution file, or its writer was not closed");
+            int version = header.getInt();
+            if(version != SolutionFileWriter.VERSION) throw new IOException("unsupported solution file version");
+            this.count = header.getInt();
+            this.indexOffset = header.getLong();
+            if(this.indexOffset + 8L * this.count != this.channel.size()){
+                throw new IOException("solution file index does not match its size");
+            }
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    // the number of records in the file
+    int size(){
+        return this.count;
+    }
+
+    // method to read the record of the puzzle with the given 1-based number
+    SolutionRecord read(int number) throws IOException {
+        if(number < 1 || number > this.count){
+            throw new IllegalArgumentException("No puzzle #" + number + " in a file of " + this.count);
+        }
+        long offset = this.readAt(this.indexOffset + 8L * (number - 1), 8).getLong();
+
+        ByteBuffer header = this.readAt(offset, SolutionFileWriter.RECORD_HEADER_SIZE);
+        int recordNumber = header.getInt();
+        int status = header.get();
+        int algorithm = header.get();
+        int width = header.get();
+        header.get();
+        int cost = header.getInt();
+        long nodesExpanded = header.getLong();
+        long elapsedNanos = header.getLong();
+        long board = header.getLong();
+        long boardHigh = header.getLong();
+        double bound = header.getFloat();
+        int reasonLength = header.getShort() & 0xFFFF;
+
+        char[] moves = new char[cost];
+        ByteBuffer packed = this.readAt(offset + SolutionFileWriter.RECORD_HEADER_SIZE, (cost + 3) / 4 + reasonLength);
+        int bits = 0;
+        for(int m=0; m<cost; m++){
+            if((m & 3) == 0) bits = packed.get() & 0xFF;
+            moves[m] = SolutionFileWriter.MOVES.charAt((bits >>> ((m & 3) << 1)) & 3);
+        }
+        String reason = null;
+        if(reasonLength > 0){
+            packed.position((cost + 3) / 4);
+            reason = StandardCharsets.UTF_8.decode(packed).toString();
+        }
+
+        String algorithmName = algorithm >= 0 && algorithm < Solver.ALGORITHMS.length ? Solver.ALGORITHMS[algorithm] : "?";
+        return new SolutionRecord(recordNumber, status, reason, algorithmName, width, board, boardHigh,
+                moves, nodesExpanded, elapsedNanos, bound);
+    }
+
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while(buffer.hasRemaining()){
+            if(this.channel.read(buffer, position + buffer.position()) < 0) throw new IOException("solution file is truncated");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    public static void main(String[] args){
+        if(args.length < 1){
+            System.err.println("Usage: java puzzle.SolutionFileReader <solution file> [puzzle number]");
+            System.exit(2);
+        }
+        try (SolutionFileReader reader = new SolutionFileReader(args[0])) {
+            if(args.length > 1){
+                System.out.println(reader.read(Integer.parseInt(args[1])).toText());
+            }
+            else{
+                for(int number=1; number<=reader.size(); number++){
+                    System.out.println(reader.read(number).toText());
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package puzzle;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Writes batch results to a binary solution file through a buffered FileChannel.
+//
+// File layout (big-endian):
+//     header   magic, version, record count, offset of the index               (FILE_HEADER_SIZE bytes)
+//     records  one per puzzle, in input order:
+//              puzzle number, status, algorithm, width, reserved byte, cost,
+//              nodes expanded, elapsed nanoseconds, start board (two words),
+//              suboptimality bound (a float, 0 if none),
+//              length of the rejection reason                                   (RECORD_HEADER_SIZE bytes)
+//              followed by the moves packed 2 bits each (U=0, R=1, D=2, L=3)  (ceil(cost / 4) bytes)
+//              and the rejection reason in UTF-8, if any
+//     index    the file offset of every record, 8 bytes each
+// The header is written last, so a file whose writer did not close has a zero magic and is rejected.
+public class SolutionFileWriter implements Closeable {
+    final static int MAGIC = 0x38505346;                    // "8PSF"
+    final static int VERSION = 1;
+    final static int FILE_HEADER_SIZE = 4 + 4 + 4 + 8;
+    final static int RECORD_HEADER_SIZE = 4 + 1 + 1 + 1 + 1 + 4 + 8 + 8 + 8 + 8 + 4 + 2;
+    final static String MOVES = "URDL";                     // move -> 2-bit code
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long position;                  // file offset of the next byte handed to write()
+    private long[] offsets = new long[1024];
+    private int count;
+
+    SolutionFileWriter(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        // reserve the header; it is filled in by close()
+        this.channel.write(ByteBuffer.allocate(FILE_HEADER_SIZE));
+        this.position = FILE_HEADER_SIZE;
+    }
+
+    // method to append one record
+    void write(SolutionRecord record) throws IOException {
+        char[] moves = record.getMoves();
+        byte[] reason = record.getReason() == null ? new byte[0] : record.getReason().getBytes(StandardCharsets.UTF_8);
+        if(reason.length > 0xFFFF) reason = Arrays.copyOf(reason, 0xFFFF);
+        int size = RECORD_HEADER_SIZE + (moves.length + 3) / 4 + reason.length;
+        if(this.buffer.remaining() < size) this.flush();
+        // a record larger than the whole buffer (a very long DFS path) gets a buffer of its own
+        ByteBuffer target = size <= this.buffer.capacity() ? this.buffer : ByteBuffer.allocate(size);
+
+        if(this.count == this.offsets.length) this.offsets = Arrays.copyOf(this.offsets, this.count * 2);
+        this.offsets[this.count++] = this.position;
+
+        target.putInt(record.getNumber())
+              .put((byte) record.getStatus())
+              .put((byte) Solver.indexOf(record.getAlgorithm()))
+              .put((byte) record.getWidth())
+              .put((byte) 0)
+              .putInt(moves.length)
+              .putLong(record.getNodesExpanded())
+              .putLong(record.getElapsedNanos())
+              .putLong(record.getBoard())
+              .putLong(record.getBoardHigh())
+              .putFloat(SolutionFileWriter.roundUp(record.getBound()))
+              .putShort((short) reason.length);
+        int packed = 0;
+        for(int m=0; m<moves.length; m++){
+            packed |= MOVES.indexOf(moves[m]) << ((m & 3) << 1);
+            if((m & 3) == 3 || m == moves.length - 1){
+                target.put((byte) packed);
+                packed = 0;
+            }
+        }
+        target.put(reason);
+        this.position += size;
+
+        if(target != this.buffer){
+            target.flip();
+            while(target.hasRemaining()) this.channel.write(target);
+        }
+    }
+
+    // the bound as a float no smaller than it, so a rounded bound still holds
+    private static float roundUp(double bound){
+        float rounded = (float) bound;
+        return rounded < bound ? Math.nextUp(rounded) : rounded;
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while(this.buffer.hasRemaining()) this.channel.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    // method to write the index and the header, then close the file
+    public void close() throws IOException {
+        try {
+            this.flush();
+            long indexOffset = this.position;
+            for(int i=0; i<this.count; i++){
+                if(this.buffer.remaining() < 8) this.flush();
+                this.buffer.putLong(this.offsets[i]);
+            }
+            this.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(this.count).putLong(indexOffset);
+            header.flip();
+            long at = 0;
+            while(header.hasRemaining()) at += this.channel.write(header, at);
+        } finally {
+            this.channel.close();
+        }
+    }
+}
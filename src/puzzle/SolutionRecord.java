@@ -0,0 +1,117 @@
+package puzzle;
+
+import java.util.Locale;
+
+// The result of one puzzle of a batch, as written to a text line or a binary solution file.
+public class SolutionRecord {
+    public final static int SOLVED = 0;
+    public final static int UNSOLVABLE = 1;
+    public final static int INVALID = 2;
+    public final static int UNSOLVED = 3;
+    public final static int ERROR = 4;
+    public final static int BUDGET_EXCEEDED = 5;
+
+    private final static String[] STATUS_NAMES = {"solved", "unsolvable", "invalid", "unsolved", "error", "budget exceeded"};
+
+    private final int number;               // 1-based position of the puzzle in the input
+    private final int status;
+    private final String reason;            // why an invalid or failed puzzle was rejected, or the budget it ran past
+    private final String algorithm;
+    private final int width;                // 0 when the puzzle could not be read
+    private final long board, boardHigh;    // the packed start board
+    private final char[] moves;
+    private final long nodesExpanded;
+    private final long elapsedNanos;
+    private final double bound;             // suboptimality bound of an anytime search, or 0
+
+    SolutionRecord(int number, int status, String reason, String algorithm, int width, long board, long boardHigh,
+                   char[] moves, long nodesExpanded, long elapsedNanos, double bound){
+        this.number = number;
+        this.status = status;
+        this.reason = reason;
+        this.algorithm = algorithm;
+        this.width = width;
+        this.board = board;
+        this.boardHigh = boardHigh;
+        this.moves = moves;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsedNanos = elapsedNanos;
+        this.bound = bound;
+    }
+
+    // method to make the record of a solved puzzle
+    static SolutionRecord solved(int number, PuzzleSize size, long board, long boardHigh, SolverResult result){
+        return new SolutionRecord(number, SOLVED, null, result.getAlgorithm(), size.getWidth(), board, boardHigh,
+                result.getMoves(), result.getNodesExpanded(), result.getElapsedNanos(), result.getBound());
+    }
+
+    // method to make the record of a puzzle that was not solved
+    static SolutionRecord rejected(int number, int status, String reason, String algorithm){
+        return new SolutionRecord(number, status, reason, algorithm, 0, 0L, 0L, new char[0], 0, 0, 0);
+    }
+
+    int getNumber(){
+        return this.number;
+    }
+
+    int getStatus(){
+        return this.status;
+    }
+
+    String getReason(){
+        return this.reason;
+    }
+
+    String getAlgorithm(){
+        return this.algorithm;
+    }
+
+    int getWidth(){
+        return this.width;
+    }
+
+    long getBoard(){
+        return this.board;
+    }
+
+    long getBoardHigh(){
+        return this.boardHigh;
+    }
+
+    char[] getMoves(){
+        return this.moves;
+    }
+
+    int getPathCost(){
+        return this.moves.length;
+    }
+
+    long getNodesExpanded(){
+        return this.nodesExpanded;
+    }
+
+    long getElapsedNanos(){
+        return this.elapsedNanos;
+    }
+
+    double getBound(){
+        return this.bound;
+    }
+
+    // method to format the record as one text result line
+    String toText(){
+        if(this.status != SOLVED){
+            String line = this.number + " " + STATUS_NAMES[this.status];
+            return this.reason == null ? line : line + " " + this.reason;
+        }
+        StringBuilder line = new StringBuilder(64 + this.moves.length);
+        line.append(this.number).append(' ').append(this.algorithm)
+            .append(" cost=").append(this.moves.length)
+            .append(" expanded=").append(this.nodesExpanded)
+            .append(" time=").append(String.format(Locale.ROOT, "%.3f", this.elapsedNanos / 1e6)).append("ms");
+        // rounded up, so the printed bound still holds
+        if(this.bound > 0) line.append(" bound=").append(String.format(Locale.ROOT, "%.3f", Math.ceil(this.bound * 1000) / 1000));
+        line.append(" moves=").append(this.moves);
+        return line.toString();
+    }
+}
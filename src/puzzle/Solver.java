@@ -0,0 +1,611 @@
+package puzzle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+
+// The search algorithms, with no dependency on the GUI. The game board and the batch solver both hand
+// a start state and an algorithm name to a Solver and get back a SolverResult.
+public class Solver {
+    public final static String BFS = "BFS";
+    public final static String BIDIRECTIONAL_BFS = "Bi-BFS";
+    public final static String PARALLEL_BFS = "Parallel BFS";
+    public final static String DFS = "DFS";
+    public final static String A_STAR = "A*";
+    public final static String IDA_STAR = "IDA*";
+    public final static String HDA_STAR = "HDA*";
+    public final static String TABLE = "Table";
+    public final static String DLS = "DLS";
+    public final static String IDDFS = "IDDFS";
+    public final static String ARA_STAR = "ARA*";
+
+    // new algorithms go at the end: a binary solution file stores the position in this array
+    public final static String[] ALGORITHMS = {BFS, BIDIRECTIONAL_BFS, PARALLEL_BFS, DFS, A_STAR, IDA_STAR, HDA_STAR, TABLE, DLS, IDDFS, ARA_STAR};
+
+    // ARA* starts at w = 2.5 and lowers it by 0.5 a pass, in hundredths (see OpenList)
+    private final static int INITIAL_WEIGHT = 250;
+    private final static int WEIGHT_STEP = 50;
+    private final static int DEADLINE_MASK = 128 - 1;  // ARA* reads the clock once every 128 expansions
+
+    private static DistanceTable distanceTable;                         // loaded on the first table solve
+
+    private final Heuristic heuristic;  // the heuristic used for h when solving; read-only once built
+    private final SolutionCache cache;  // optimal solutions seen before, or null
+    private final SearchLimits limits;  // node, memory and depth budgets of every solve
+    private State initState;            // root of the current solve (only set on a solve's own copy)
+    private final SearchStats stats = new SearchStats();    // counters of the current solve
+    private SearchControl control;      // progress and cancellation of the current solve, or null
+    private long startTime;             // System.nanoTime() at the start of the current solve
+    private double bound;               // suboptimality bound reached by ARA*, or 0
+
+    public Solver(Heuristic heuristic){
+        this(heuristic, null);
+    }
+
+    // a solver that answers boards on a known optimal path from the cache, and caches the optimal
+    // paths it finds
+    public Solver(Heuristic heuristic, SolutionCache cache){
+        this(heuristic, cache, SearchLimits.NONE);
+    }
+
+    // a solver whose searches stop with a "budget exceeded" result once they run past the limits
+    public Solver(Heuristic heuristic, SolutionCache cache, SearchLimits limits){
+        this.heuristic = heuristic;
+        this.cache = cache;
+        this.limits = limits;
+    }
+
+    Heuristic getHeuristic(){
+        return this.heuristic;
+    }
+
+    // method to find the position of an algorithm name in ALGORITHMS, or -1
+    static int indexOf(String algorithm){
+        return Arrays.asList(ALGORITHMS).indexOf(algorithm);
+    }
+
+    // method to solve a board with the named algorithm. The start state is re-rooted so its h comes
+    // from this solver's heuristic. Throws IllegalArgumentException for an unknown algorithm name.
+    // Every call searches on its own copy of the solver, so one Solver can be shared between threads.
+    // The result carries the solve's SearchStats, which are also added to the SolverMetrics totals.
+    SolverResult solve(String algorithm, State start){
+        return this.solve(algorithm, start, null);
+    }
+
+    // method to solve under a SearchControl, which receives the progress and can stop the search.
+    // A cancelled solve throws CancellationException.
+    SolverResult solve(String algorithm, State start, SearchControl control){
+        if(Solver.indexOf(algorithm) < 0){
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        long startTime = System.nanoTime();
+        long allocatedBefore = SearchStats.threadAllocatedBytes();
+        Solver search = new Solver(this.heuristic, null, this.limits);
+        search.control = control;
+        search.startTime = startTime;
+        search.initState = new State(start.getSize(), start.getBoard(), start.getBoardHigh(), State.actionNotApplicable, null, this.heuristic);
+
+        SolverResult result = null;
+        if(this.cache != null){
+            String cached = this.cache.get(start.getBoard(), start.getBoardHigh());
+            search.stats.lookupNanos = System.nanoTime() - startTime;
+            if(cached != null){
+                // replaying the cached moves to build the chain of states shown by the Next button
+                State resultNode = search.initState;
+                for(int i=0; i<cached.length(); i++){
+                    resultNode = search.result(resultNode, cached.charAt(i));
+                }
+                // a cached path is optimal
+                if(ARA_STAR.equals(algorithm)) search.bound = 1;
+                result = search.finish(algorithm, resultNode, startTime);
+            }
+        }
+        if(result == null){
+            result = search.run(algorithm, startTime);
+            // DFS, DLS and unfinished ARA* paths are not optimal, so their suffixes must not be served to the
+            // other algorithms
+            if(this.cache != null && result.isSolved() && !DFS.equals(algorithm) && !DLS.equals(algorithm)
+                    && result.getBound() <= 1){
+                this.cache.putPath(start.getSize(), start.getBoard(), start.getBoardHigh(), result.getMoves());
+            }
+        }
+
+        if(allocatedBefore >= 0) search.stats.allocatedBytes = SearchStats.threadAllocatedBytes() - allocatedBefore;
+        SolverMetrics.getInstance().record(result);
+        return result;
+    }
+
+    private SolverResult run(String algorithm, long startTime){
+        long searchStart = System.nanoTime();
+        State goal;
+        try {
+            goal = this.search(algorithm);
+        } catch (BudgetExceededException e) {
+            this.stats.searchNanos = System.nanoTime() - searchStart;
+            return new SolverResult(algorithm, null, new char[0], this.stats, System.nanoTime() - startTime, 0, e.getMessage());
+        }
+        this.stats.searchNanos = System.nanoTime() - searchStart;
+
+        return this.finish(algorithm, goal, startTime);
+    }
+
+    private State search(String algorithm){
+        State goal;
+        if(BFS.equals(algorithm)){
+            goal = this.searchBFS();
+        }
+        else if(PARALLEL_BFS.equals(algorithm)){
+            goal = this.searchParallelBFS();
+        }
+        else if(DFS.equals(algorithm)){
+            goal = this.searchDFS();
+        }
+        else if(BIDIRECTIONAL_BFS.equals(algorithm)){
+            goal = this.searchBidirectionalBFS();
+        }
+        else if(A_STAR.equals(algorithm)){
+            goal = this.searchAStar();
+        }
+        else if(IDA_STAR.equals(algorithm)){
+            goal = this.searchIDAStar();
+        }
+        else if(HDA_STAR.equals(algorithm)){
+            goal = this.searchParallelAStar();
+        }
+        else if(TABLE.equals(algorithm)){
+            goal = this.searchTable();
+        }
+        else if(DLS.equals(algorithm)){
+            goal = this.searchDepthFirst(false);
+        }
+        else if(IDDFS.equals(algorithm)){
+            goal = this.searchDepthFirst(true);
+        }
+        else if(ARA_STAR.equals(algorithm)){
+            goal = this.searchAnytimeAStar();
+        }
+        else{
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+        return goal;
+    }
+
+    // method to pass on the progress, honour a cancel and enforce the budgets, once every
+    // SearchControl.CHECK_INTERVAL expansions. The memory held is estimated from the boards kept.
+    private void checkpoint(long frontier){
+        if(this.control != null) this.control.checkpoint(this.stats.nodesExpanded, frontier);
+        long held = this.stats.nodesGenerated - this.stats.duplicatesPruned + 1;
+        this.limits.check(this.stats.nodesExpanded, held * SearchLimits.BYTES_PER_STATE);
+    }
+
+    // method to read the moves off the goal node and wrap up the result
+    private SolverResult finish(String algorithm, State goal, long startTime){
+        long pathStart = System.nanoTime();
+        char[] moves = goal == null ? new char[0] : goal.getPathActions();
+        this.stats.pathNanos = System.nanoTime() - pathStart;
+        return new SolverResult(algorithm, goal, moves, this.stats, System.nanoTime() - startTime, this.bound, null);
+    }
+
+    // method to solve the puzzle using the Breadth-First Search algorithm
+    private State searchBFS() {
+        Queue<State> frontier = new LinkedList<>();
+        frontier.add(this.initState);
+
+        // boards that were expanded or are waiting in the frontier (one bit per board on 3x3)
+        VisitedSet explored = VisitedSet.forSize(this.initState.getSize());
+        explored.add(this.initState.getBoard(), this.initState.getBoardHigh());
+        long reached = 1;                   // boards in explored
+        State resultNode = this.initState;
+
+        while( frontier.size() != 0) {
+            State currentState = frontier.remove();
+
+            if(goalTest(currentState)) {
+                resultNode = currentState;
+                break;
+            }
+            else{
+                this.stats.nodesExpanded++;
+                if((this.stats.nodesExpanded & SearchControl.CHECK_MASK) == 0) this.checkpoint(frontier.size());
+                for(Character action: actions(currentState)){
+                    State nextState = result(currentState, action);
+                    this.stats.nodesGenerated++;
+
+                    // If the resulting state is neither explored nor waiting in the frontier, add it to the frontier
+                    if(explored.add(nextState.getBoard(), nextState.getBoardHigh())){
+                        frontier.add(nextState);
+                        reached++;
+                    }
+                    else this.stats.duplicatesPruned++;
+                }
+                this.stats.open(frontier.size());
+            }
+        }
+        this.stats.closed(reached);
+        return resultNode;
+    }
+
+    // method to solve the puzzle using a layer-at-a-time breadth-first search on every core (8-puzzle only)
+    private State searchParallelBFS() {
+        if(this.initState.getSize().getWidth() != 3){
+            throw new IllegalArgumentException("Parallel BFS only covers 3x3 boards");
+        }
+        ParallelBFS search = new ParallelBFS(Runtime.getRuntime().availableProcessors(), this.control);
+        char[] moves = search.solve(this.initState.getBoard());
+        this.stats.nodesExpanded = search.getNodesExpanded();
+
+        // replaying the moves to build the chain of states shown by the Next button
+        State resultNode = this.initState;
+        for(char action: moves){
+            resultNode = result(resultNode, action);
+        }
+        return resultNode;
+    }
+
+    // method to solve the puzzle using the Depth-First Search algorithm
+    private State searchDFS() {
+        ArrayDeque<State> frontier = new ArrayDeque<>();
+        frontier.push(this.initState);
+
+        // boards that were expanded or are waiting in the frontier (one bit per board on 3x3)
+        VisitedSet explored = VisitedSet.forSize(this.initState.getSize());
+        explored.add(this.initState.getBoard(), this.initState.getBoardHigh());
+        long reached = 1;                   // boards in explored
+        State resultNode = this.initState;
+
+        while( frontier.size() != 0) {
+            State currentState = frontier.pop();
+
+            if(goalTest(currentState)) {
+                resultNode = currentState;
+                break;
+            }
+            else{
+                this.stats.nodesExpanded++;
+                if((this.stats.nodesExpanded & SearchControl.CHECK_MASK) == 0) this.checkpoint(frontier.size());
+                for(Character action: actions(currentState)){
+                    State nextState = result(currentState, action);
+                    this.stats.nodesGenerated++;
+
+                    // If the resulting state is neither explored nor waiting in the frontier, add it to the frontier
+                    if(explored.add(nextState.getBoard(), nextState.getBoardHigh())){
+                        frontier.push(nextState);
+                        reached++;
+                    }
+                    else this.stats.duplicatesPruned++;
+                }
+                this.stats.open(frontier.size());
+            }
+        }
+        this.stats.closed(reached);
+        return resultNode;
+    }
+
+    // method to solve the puzzle using a bidirectional Breadth-First Search. One search grows forward
+    // from the initial puzzle and one backward from the goal; the smaller frontier is expanded a whole
+    // layer at a time, and the search stops after the first layer in which the two sides meet.
+    private State searchBidirectionalBFS() {
+        PuzzleSize size = this.initState.getSize();
+        State goalState = new State(size, size.getGoalLow(), size.getGoalHigh(), State.actionNotApplicable, null, this.heuristic);
+        if(goalTest(this.initState)) return this.initState;
+
+        // packed board -> position of the node reaching it in that side's node list
+        BoardIndex forwardSeen = new BoardIndex(), backwardSeen = new BoardIndex();
+        ArrayList<State> forwardNodes = new ArrayList<>(), backwardNodes = new ArrayList<>();
+        forwardSeen.put(this.initState.getBoard(), this.initState.getBoardHigh(), forwardNodes.size());
+        forwardNodes.add(this.initState);
+        backwardSeen.put(goalState.getBoard(), goalState.getBoardHigh(), backwardNodes.size());
+        backwardNodes.add(goalState);
+
+        ArrayList<State> forwardLayer = new ArrayList<>();
+        ArrayList<State> backwardLayer = new ArrayList<>();
+        forwardLayer.add(this.initState);
+        backwardLayer.add(goalState);
+
+        State forwardMeet = null, backwardMeet = null;
+        while(forwardMeet == null && !forwardLayer.isEmpty() && !backwardLayer.isEmpty()){
+            boolean forward = forwardLayer.size() <= backwardLayer.size();
+            ArrayList<State> layer = forward ? forwardLayer : backwardLayer;
+            BoardIndex seen = forward ? forwardSeen : backwardSeen;
+            BoardIndex otherSeen = forward ? backwardSeen : forwardSeen;
+            ArrayList<State> nodes = forward ? forwardNodes : backwardNodes;
+            ArrayList<State> otherNodes = forward ? backwardNodes : forwardNodes;
+
+            ArrayList<State> nextLayer = new ArrayList<>();
+            int bestCost = Integer.MAX_VALUE;
+            for(State currentState: layer){
+                this.stats.nodesExpanded++;
+                if((this.stats.nodesExpanded & SearchControl.CHECK_MASK) == 0) this.checkpoint(nextLayer.size());
+                for(Character action: actions(currentState)){
+                    State nextState = result(currentState, action);
+                    this.stats.nodesGenerated++;
+                    long board = nextState.getBoard(), boardHigh = nextState.getBoardHigh();
+                    if(seen.contains(board, boardHigh)){
+                        this.stats.duplicatesPruned++;
+                        continue;
+                    }
+                    seen.put(board, boardHigh, nodes.size());
+                    nodes.add(nextState);
+                    nextLayer.add(nextState);
+
+                    // keep the cheapest meeting point found in this layer
+                    int otherPosition = otherSeen.get(board, boardHigh);
+                    if(otherPosition == BoardIndex.ABSENT) continue;
+                    State other = otherNodes.get(otherPosition);
+                    if(nextState.getGValue() + other.getGValue() < bestCost){
+                        bestCost = nextState.getGValue() + other.getGValue();
+                        forwardMeet = forward ? nextState : other;
+                        backwardMeet = forward ? other : nextState;
+                    }
+                }
+            }
+            if(forward) forwardLayer = nextLayer;
+            else backwardLayer = nextLayer;
+            this.stats.open(forwardLayer.size() + backwardLayer.size());
+        }
+        this.stats.closed(forwardSeen.size() + backwardSeen.size());
+        if(forwardMeet == null) return this.initState;
+
+        // the backward half is walked from the meeting point up to the goal, undoing each backward move
+        State resultNode = forwardMeet;
+        for(State node = backwardMeet; node.getParent() != null; node = node.getParent()){
+            resultNode = result(resultNode, State.inverse(node.getAction()));
+        }
+        return resultNode;
+    }
+
+     // method to solve the puzzle using the A* Search algorithm
+     private State searchAStar() {
+        OpenList openList = new OpenList();                 // binary heap on f, indexed by packed board
+        openList.add(this.initState);
+
+        VisitedSet closedList = VisitedSet.forSize(this.initState.getSize());   // boards that have already been expanded
+        State resultNode = this.initState; // buffer state to return
+
+        long closed = 0;                    // boards in closedList
+        while( !openList.isEmpty()) {
+            State bestNode = openList.poll();
+            closedList.add(bestNode.getBoard(), bestNode.getBoardHigh());
+            closed++;
+
+            if(goalTest(bestNode)) {
+                resultNode = bestNode;
+                break;
+            }
+            else{
+                this.stats.nodesExpanded++;
+                if((this.stats.nodesExpanded & SearchControl.CHECK_MASK) == 0) this.checkpoint(openList.size());
+                for(Character action: actions(bestNode)){
+                    State checkNode = result(bestNode, action);
+                    this.stats.nodesGenerated++;
+
+                    // Skip states that were already expanded
+                    if(closedList.contains(checkNode.getBoard(), checkNode.getBoardHigh())){
+                        this.stats.duplicatesPruned++;
+                        continue;
+                    }
+
+                    // Queue the state if it is new; if its board is already queued with a larger g value,
+                    // the open list replaces that node in place
+                    int queued = openList.size();
+                    if(!openList.add(checkNode)) this.stats.duplicatesPruned++;
+                    else if(openList.size() == queued) this.stats.reopenings++;
+                }
+                this.stats.open(openList.size());
+            }
+        }
+        this.stats.closed(closed);
+        return resultNode;
+    }
+
+    // method to solve the puzzle using Anytime Repairing A* (ARA*). A first pass of weighted A* on
+    // g + w*h finds a solution fast; each later pass lowers w and repairs that solution, keeping the
+    // open list and the best g of every board from the passes before. A board reached more cheaply
+    // after it was expanded in the current pass waits in the inconsistent list until the next pass.
+    // Each better solution is passed to the control. The search ends once a pass with w = 1 proves the
+    // solution optimal, or at the deadline of the limits (though never before a first solution), and
+    // leaves in this.bound the factor by which the solution's cost is at most the optimal cost.
+    private State searchAnytimeAStar() {
+        PuzzleSize size = this.initState.getSize();
+        long deadline = this.limits.getDeadlineNanos() > 0 ? this.startTime + this.limits.getDeadlineNanos() : Long.MAX_VALUE;
+        int weight = INITIAL_WEIGHT;
+        OpenList openList = new OpenList(weight);
+        openList.add(this.initState);
+        BoardIndex bestG = new BoardIndex();                    // packed board -> smallest g found
+        bestG.put(this.initState.getBoard(), this.initState.getBoardHigh(), 0);
+        ArrayList<State> inconsistent = new ArrayList<>();
+
+        State incumbent = goalTest(this.initState) ? this.initState : null;    // the best solution so far
+        double proven = incumbent == null ? Double.MAX_VALUE : 1;              // bound of the last finished pass
+        int publishedCost = Integer.MAX_VALUE;                                 // the last solution passed on
+        double publishedBound = Double.MAX_VALUE;
+        boolean stopped = false;
+        while(proven > 1 && !stopped){
+            VisitedSet closed = VisitedSet.forSize(size);      // boards expanded in this pass
+            try {
+                // a pass ends when no queued board could lead to a cheaper solution under the current w
+                while(!openList.isEmpty() && (incumbent == null || openList.minKey() < incumbent.getGValue() * OpenList.WEIGHT_ONE)){
+                    // the clock and the budgets are checked before the next node leaves the open list, so a
+                    // stop never loses a node that is still to be expanded from the bound below
+                    if((this.stats.nodesExpanded & DEADLINE_MASK) == 0 && incumbent != null && System.nanoTime() > deadline){
+                        stopped = true;
+                        break;
+                    }
+                    if(((this.stats.nodesExpanded + 1) & SearchControl.CHECK_MASK) == 0) this.checkpoint(openList.size());
+                    State bestNode = openList.poll();
+                    closed.add(bestNode.getBoard(), bestNode.getBoardHigh());
+                    this.stats.nodesExpanded++;
+                    for(Character action: actions(bestNode)){
+                        State nextState = result(bestNode, action);
+                        this.stats.nodesGenerated++;
+                        long board = nextState.getBoard(), boardHigh = nextState.getBoardHigh();
+                        int known = bestG.get(board, boardHigh);
+                        if(known != BoardIndex.ABSENT && known <= nextState.getGValue()){
+                            this.stats.duplicatesPruned++;
+                            continue;
+                        }
+                        if(known != BoardIndex.ABSENT) this.stats.reopenings++;
+                        bestG.put(board, boardHigh, nextState.getGValue());
+
+                        if(goalTest(nextState)){
+                            if(incumbent == null || nextState.getGValue() < incumbent.getGValue()) incumbent = nextState;
+                        }
+                        else if(closed.contains(board, boardHigh)) inconsistent.add(nextState);
+                        else openList.add(nextState);
+                    }
+                    this.stats.open(openList.size());
+                }
+            } catch (BudgetExceededException e) {
+                // out of budget, but an anytime search still has an answer if it found one
+                if(incumbent == null) throw e;
+                stopped = true;
+            }
+            if(incumbent == null) break;       // nothing left to search: no solution
+
+            // the optimal cost is at least the smallest f still to be explored
+            int minF = openList.minFValue();
+            for(State node: inconsistent){
+                minF = Math.min(minF, node.getFValue());
+            }
+            double passBound = stopped ? proven : (double) weight / OpenList.WEIGHT_ONE;
+            proven = Math.max(1, Math.min(passBound, (double) incumbent.getGValue() / minF));
+            if(incumbent.getGValue() < publishedCost || proven < publishedBound){
+                publishedCost = incumbent.getGValue();
+                publishedBound = proven;
+                if(this.control != null) this.control.improved(publishedCost, publishedBound);
+            }
+
+            // the next pass: a smaller w, with the inconsistent boards queued again under it
+            weight = Math.max(OpenList.WEIGHT_ONE, weight - WEIGHT_STEP);
+            for(State node: inconsistent){
+                if(node.getGValue() == bestG.get(node.getBoard(), node.getBoardHigh())) openList.add(node);
+            }
+            inconsistent.clear();
+            openList.reweight(weight);
+        }
+        this.stats.closed(bestG.size());
+        if(incumbent == null) return this.initState;
+        this.bound = proven;
+        return incumbent;
+    }
+
+    // method to solve the puzzle using the Iterative-Deepening A* algorithm
+    private State searchIDAStar() {
+        IDAStar search = new IDAStar(this.initState.getSize(), this.heuristic, this.control);
+        ArrayList<Character> moves = search.solve(this.initState.getBoard(), this.initState.getBoardHigh());
+        this.stats.nodesExpanded = search.getNodesExpanded();
+        this.stats.nodesGenerated = search.getNodesGenerated();
+        this.stats.open(search.getPeakDepth());
+
+        // replaying the moves to build the chain of states shown by the Next button
+        State resultNode = this.initState;
+        for(Character action: moves){
+            resultNode = result(resultNode, action);
+        }
+        return resultNode;
+    }
+
+    // method to solve the puzzle with a depth-limited search, or with iterative deepening when 'iterative'
+    // is set (see DepthFirstSearch). Only the current path is kept, so memory grows with the depth limit.
+    private State searchDepthFirst(boolean iterative) {
+        PuzzleSize size = this.initState.getSize();
+        DepthFirstSearch search = new DepthFirstSearch(size, this.limits, this.control);
+        long board = this.initState.getBoard(), boardHigh = this.initState.getBoardHigh();
+        int limit = this.limits.getDepthLimit(size);
+        char[] moves;
+        try {
+            moves = iterative ? search.searchIterative(board, boardHigh, limit) : search.searchLimited(board, boardHigh, limit);
+        } finally {
+            // the counters are kept when a budget stops the search too
+            this.stats.nodesExpanded = search.getNodesExpanded();
+            this.stats.nodesGenerated = search.getNodesGenerated();
+            this.stats.duplicatesPruned = search.getDuplicatesPruned();
+            this.stats.open(search.getPeakDepth());
+        }
+        if(moves == null) return this.initState;
+
+        // replaying the moves to build the chain of states shown by the Next button
+        State resultNode = this.initState;
+        for(char action: moves){
+            resultNode = result(resultNode, action);
+        }
+        return resultNode;
+    }
+
+    // method to solve the puzzle using hash-distributed A* on every core (see ParallelAStar)
+    private State searchParallelAStar() {
+        ParallelAStar search = new ParallelAStar(this.initState.getSize(), this.heuristic, Runtime.getRuntime().availableProcessors(), this.control);
+        ArrayList<Character> moves = search.solve(this.initState.getBoard(), this.initState.getBoardHigh());
+        search.addStats(this.stats);
+
+        // replaying the moves to build the chain of states shown by the Next button
+        State resultNode = this.initState;
+        for(Character action: moves){
+            resultNode = result(resultNode, action);
+        }
+        return resultNode;
+    }
+
+    // method to solve the puzzle by walking down the precomputed distance table (8-puzzle only)
+    private State searchTable() {
+        if(this.initState.getSize().getWidth() != 3){
+            throw new IllegalArgumentException("The distance table only covers 3x3 boards");
+        }
+        synchronized(Solver.class){
+            if(distanceTable == null) distanceTable = DistanceTable.loadOrBuild(DistanceTable.DEFAULT_PATH);
+        }
+
+        char[] moves = new char[DistanceTable.MAX_DEPTH];
+        int length = distanceTable.solve(this.initState.getBoard(), moves);
+        this.stats.nodesExpanded = length;
+
+        // replaying the moves to build the chain of states shown by the Next button
+        State resultNode = this.initState;
+        for(int i=0; i<length; i++){
+            resultNode = result(resultNode, moves[i]);
+        }
+        return resultNode;
+    }
+
+    // A method that returns true if the state, s, is the goal, and false otherwise.
+    // Therefore, it will only return true if all the cells are ordered sequentially from Top-Bottom,
+    // Left-Right, with ascending values and the empty cell in the bottom-right corner.
+    Boolean goalTest(State test){
+        Boolean isGoal = false;
+            if(test.isGoal()) isGoal = true;
+        return isGoal;
+    }
+
+    // Given a state, s, the actions method will return a list of possible actions.
+    ArrayList<Character> actions(State currentState){
+        ArrayList<Character> actionList = new ArrayList<>();
+        PuzzleSize size = currentState.getSize();
+        int emptyIndex = currentState.getEmptyIndex();
+
+        // Checking UP, RIGHT, DOWN and LEFT movements, in that order
+        if(size.moveTarget(emptyIndex, State.UP) >= 0){
+            actionList.add(State.UP);
+        }
+        if(size.moveTarget(emptyIndex, State.RIGHT) >= 0){
+            actionList.add(State.RIGHT);
+        }
+        if(size.moveTarget(emptyIndex, State.DOWN) >= 0){
+            actionList.add(State.DOWN);
+        }
+        if(size.moveTarget(emptyIndex, State.LEFT) >= 0){
+            actionList.add(State.LEFT);
+        }
+
+        return actionList;
+    }
+
+    // Given a state, s, and an action, a, the result method will return the next state.
+    // The empty tile trades places with its neighbour in the packed board, so no arrays are copied.
+    State result(State currentState, Character action){
+        int target = currentState.getSize().moveTarget(currentState.getEmptyIndex(), action);
+        State nextState = new State(currentState, target, action, this.heuristic);
+        return nextState;
+    }
+}
@@ -0,0 +1,218 @@
+package puzzle;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Running totals of the SearchStats of every solve, per algorithm. Solver.solve() records each result
+// here; the totals are published as a JMX MBean and can be written to a Prometheus text file. Solves
+// on many threads only add to striped counters, so recording never blocks.
+public class SolverMetrics implements SolverMetricsMBean {
+    public final static String OBJECT_NAME = "puzzle:type=SolverMetrics";
+
+    private final static SolverMetrics instance = SolverMetrics.register();
+
+    private final Totals[] totals = new Totals[Solver.ALGORITHMS.length];
+
+    private SolverMetrics(){
+        for(int i=0; i<this.totals.length; i++){
+            this.totals[i] = new Totals();
+        }
+    }
+
+    static SolverMetrics getInstance(){
+        return instance;
+    }
+
+    private static SolverMetrics register(){
+        SolverMetrics metrics = new SolverMetrics();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return metrics;
+    }
+
+    // method to add one solve to the totals of its algorithm
+    void record(SolverResult result){
+        int algorithm = Solver.indexOf(result.getAlgorithm());
+        if(algorithm < 0) return;
+        Totals t = this.totals[algorithm];
+        SearchStats stats = result.getStats();
+        t.solves.increment();
+        if(result.isSolved()) t.solved.increment();
+        t.nodesGenerated.add(stats.getNodesGenerated());
+        t.nodesExpanded.add(stats.getNodesExpanded());
+        t.duplicatesPruned.add(stats.getDuplicatesPruned());
+        t.reopenings.add(stats.getReopenings());
+        t.peakOpen.accumulate(stats.getPeakOpen());
+        t.peakClosed.accumulate(stats.getPeakClosed());
+        t.lookupNanos.add(stats.getLookupNanos());
+        t.searchNanos.add(stats.getSearchNanos());
+        t.pathNanos.add(stats.getPathNanos());
+        if(stats.getAllocatedBytes() > 0) t.allocatedBytes.add(stats.getAllocatedBytes());
+    }
+
+    public long getSolves(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.solves.sum();
+        return sum;
+    }
+
+    public long getSolved(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.solved.sum();
+        return sum;
+    }
+
+    public long getNodesGenerated(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.nodesGenerated.sum();
+        return sum;
+    }
+
+    public long getNodesExpanded(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.nodesExpanded.sum();
+        return sum;
+    }
+
+    public long getDuplicatesPruned(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.duplicatesPruned.sum();
+        return sum;
+    }
+
+    public long getReopenings(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.reopenings.sum();
+        return sum;
+    }
+
+    public long getPeakOpen(){
+        long max = 0;
+        for(Totals t: this.totals) max = Math.max(max, t.peakOpen.get());
+        return max;
+    }
+
+    public long getPeakClosed(){
+        long max = 0;
+        for(Totals t: this.totals) max = Math.max(max, t.peakClosed.get());
+        return max;
+    }
+
+    public double getLookupSeconds(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.lookupNanos.sum();
+        return sum / 1e9;
+    }
+
+    public double getSearchSeconds(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.searchNanos.sum();
+        return sum / 1e9;
+    }
+
+    public double getPathSeconds(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.pathNanos.sum();
+        return sum / 1e9;
+    }
+
+    public long getAllocatedBytes(){
+        long sum = 0;
+        for(Totals t: this.totals) sum += t.allocatedBytes.sum();
+        return sum;
+    }
+
+    public void reset(){
+        for(int i=0; i<this.totals.length; i++){
+            this.totals[i] = new Totals();
+        }
+    }
+
+    // method to write the totals in the Prometheus text format. The file is replaced in one rename,
+    // so a scraper never reads it half written.
+    void writePrometheus(String path) throws IOException {
+        StringBuilder text = new StringBuilder();
+        this.counter(text, "puzzle_solves_total", "Solves started", t -> t.solves.sum());
+        this.counter(text, "puzzle_solved_total", "Solves that reached the goal", t -> t.solved.sum());
+        this.counter(text, "puzzle_nodes_generated_total", "Successor nodes built", t -> t.nodesGenerated.sum());
+        this.counter(text, "puzzle_nodes_expanded_total", "Nodes whose successors were generated", t -> t.nodesExpanded.sum());
+        this.counter(text, "puzzle_duplicates_pruned_total", "Successors dropped as already reached", t -> t.duplicatesPruned.sum());
+        this.counter(text, "puzzle_reopenings_total", "Boards queued again with a smaller g", t -> t.reopenings.sum());
+        this.gauge(text, "puzzle_open_list_peak", "Largest open list of any solve", t -> t.peakOpen.get());
+        this.gauge(text, "puzzle_closed_list_peak", "Largest closed list of any solve", t -> t.peakClosed.get());
+        this.counter(text, "puzzle_allocated_bytes_total", "Bytes allocated by the solving threads", t -> t.allocatedBytes.sum());
+
+        text.append("# HELP puzzle_phase_seconds_total Wall time spent in each phase of a solve\n");
+        text.append("# TYPE puzzle_phase_seconds_total counter\n");
+        for(int i=0; i<this.totals.length; i++){
+            Totals t = this.totals[i];
+            if(t.solves.sum() == 0) continue;
+            String algorithm = SolverMetrics.label(Solver.ALGORITHMS[i]);
+            text.append("puzzle_phase_seconds_total{algorithm=\"").append(algorithm).append("\",phase=\"lookup\"} ").append(t.lookupNanos.sum() / 1e9).append('\n');
+            text.append("puzzle_phase_seconds_total{algorithm=\"").append(algorithm).append("\",phase=\"search\"} ").append(t.searchNanos.sum() / 1e9).append('\n');
+            text.append("puzzle_phase_seconds_total{algorithm=\"").append(algorithm).append("\",phase=\"path\"} ").append(t.pathNanos.sum() / 1e9).append('\n');
+        }
+
+        Path file = Paths.get(path);
+        Path temporary = Paths.get(path + ".tmp");
+        Files.write(temporary, text.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void counter(StringBuilder text, String name, String help, Value value){
+        this.metric(text, name, help, "counter", value);
+    }
+
+    private void gauge(StringBuilder text, String name, String help, Value value){
+        this.metric(text, name, help, "gauge", value);
+    }
+
+    private void metric(StringBuilder text, String name, String help, String type, Value value){
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for(int i=0; i<this.totals.length; i++){
+            Totals t = this.totals[i];
+            if(t.solves.sum() == 0) continue;
+            text.append(name).append("{algorithm=\"").append(SolverMetrics.label(Solver.ALGORITHMS[i])).append("\"} ")
+                .append(value.of(t)).append('\n');
+        }
+    }
+
+    // method to escape a label value
+    private static String label(String value){
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // one metric read off the totals of an algorithm
+    private interface Value {
+        long of(Totals t);
+    }
+
+    // the totals of one algorithm
+    private static class Totals {
+        final LongAdder solves = new LongAdder();
+        final LongAdder solved = new LongAdder();
+        final LongAdder nodesGenerated = new LongAdder();
+        final LongAdder nodesExpanded = new LongAdder();
+        final LongAdder duplicatesPruned = new LongAdder();
+        final LongAdder reopenings = new LongAdder();
+        final LongAccumulator peakOpen = new LongAccumulator(Math::max, 0);
+        final LongAccumulator peakClosed = new LongAccumulator(Math::max, 0);
+        final LongAdder lookupNanos = new LongAdder();
+        final LongAdder searchNanos = new LongAdder();
+        final LongAdder pathNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+    }
+}
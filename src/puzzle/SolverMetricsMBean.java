@@ -0,0 +1,30 @@
+package puzzle;
+
+// The running totals of every solve in this JVM, as seen in a JMX console under puzzle:type=SolverMetrics.
+public interface SolverMetricsMBean {
+    long getSolves();
+
+    long getSolved();
+
+    long getNodesGenerated();
+
+    long getNodesExpanded();
+
+    long getDuplicatesPruned();
+
+    long getReopenings();
+
+    long getPeakOpen();
+
+    long getPeakClosed();
+
+    double getLookupSeconds();
+
+    double getSearchSeconds();
+
+    double getPathSeconds();
+
+    long getAllocatedBytes();
+
+    void reset();
+}
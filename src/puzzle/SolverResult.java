@@ -0,0 +1,76 @@
+package puzzle;
+
+// The outcome of one solve: the goal node (whose parent chain is the solution), the moves read off
+// that chain, and how much work the search did (see SearchStats).
+public class SolverResult {
+    private final String algorithm;
+    private final State goal;               // null if the search could not run
+    private final char[] moves;
+    private final SearchStats stats;
+    private final long elapsedNanos;
+    private final double bound;             // the cost is at most this many times the optimal cost, or 0
+    private final String budgetExceeded;    // the budget the search ran past, or null
+
+    SolverResult(String algorithm, State goal, char[] moves, SearchStats stats, long elapsedNanos){
+        this(algorithm, goal, moves, stats, elapsedNanos, 0, null);
+    }
+
+    SolverResult(String algorithm, State goal, char[] moves, SearchStats stats, long elapsedNanos, double bound,
+                 String budgetExceeded){
+        this.algorithm = algorithm;
+        this.goal = goal;
+        this.moves = moves;
+        this.stats = stats;
+        this.elapsedNanos = elapsedNanos;
+        this.bound = bound;
+        this.budgetExceeded = budgetExceeded;
+    }
+
+    String getAlgorithm(){
+        return this.algorithm;
+    }
+
+    State getGoal(){
+        return this.goal;
+    }
+
+    boolean isSolved(){
+        return this.goal != null && this.goal.isGoal();
+    }
+
+    // true if the search was stopped by its SearchLimits before it found the goal
+    boolean isBudgetExceeded(){
+        return this.budgetExceeded != null;
+    }
+
+    // the budget that stopped the search, such as "100000 nodes", or null
+    String getBudgetExceeded(){
+        return this.budgetExceeded;
+    }
+
+    // the suboptimality bound an anytime search reached: the path cost is at most this many times the
+    // optimal cost (1 when it is proven optimal). 0 for the algorithms that report no bound.
+    double getBound(){
+        return this.bound;
+    }
+
+    char[] getMoves(){
+        return this.moves;
+    }
+
+    int getPathCost(){
+        return this.moves.length;
+    }
+
+    long getNodesExpanded(){
+        return this.stats.getNodesExpanded();
+    }
+
+    SearchStats getStats(){
+        return this.stats;
+    }
+
+    long getElapsedNanos(){
+        return this.elapsedNanos;
+    }
+}
@@ -1,12 +1,13 @@
 package puzzle;
 
 public class State {
-    private int[][] tileValues;                      // array containing the tile values
-    private int empty_loc_row, empty_loc_col;        // the row and column (a.k.a. index) of the empty tile
+    private PuzzleSize size;                         // the width of the board and its goal
+    private long board, boardHigh;                   // packed tile values (see PuzzleSize for the layout)
+    private int emptyIndex;                          // the cell index (row * width + col) of the empty tile
     private Character actionDirection;                    // char action to arrive at this state
     private State parentNode;                         // a pointer to the parent node
 
-    private Integer g=0, h=0, f=0;
+    private int g, h, f;                              // g is the depth of the node: its parent's g plus one
 
     public final static Character UP = 'U';
     public final static Character RIGHT = 'R';
@@ -16,32 +17,79 @@ public class State {
     public final static Character actionNotApplicable = 'N';
 
     public State (int[][] puzzle, char action, State parent){
-        // initializing the puzzle array
-        this.tileValues = new int[puzzle.length][];   
-        for(int i=0; i<puzzle.length;i++){
-            this.tileValues[i] = puzzle[i].clone();
-        }
-            
+        this(puzzle, action, parent, Heuristic.forName(Heuristic.MANHATTAN, PuzzleSize.of(puzzle.length)));
+    }
+
+    public State (int[][] puzzle, char action, State parent, Heuristic heuristic){
+        // packing the puzzle array
+        this(PuzzleSize.of(puzzle.length), PuzzleSize.of(puzzle.length).packLow(puzzle),
+                PuzzleSize.of(puzzle.length).packHigh(puzzle), action, parent, heuristic);
+    }
+
+    // constructor for a state whose board is already packed
+    State (PuzzleSize size, long board, long boardHigh, char action, State parent, Heuristic heuristic){
+        this.size = size;
+        this.board = board;
+        this.boardHigh = boardHigh;
+        this.emptyIndex = size.findEmptyIndex(board, boardHigh);
+
         this.actionDirection = action;
         this.parentNode = parent;
 
-        this.setEmptyLocCoords(); // finds the empty tile location
+        this.setGValue();
+        this.setHValue(heuristic);
+        this.setFValue();
+    }
+
+    // constructor for successor states: the tile at cell 'target' of the parent slides into its empty cell.
+    // Since the empty cell holds zero, XOR-ing the tile into both cells moves it without touching the rest.
+    State (State parent, int target, char action, Heuristic heuristic){
+        this.size = parent.size;
+        int tile = PuzzleSize.tileAt(parent.board, parent.boardHigh, target);
+        this.board = parent.board ^ PuzzleSize.lowBits(tile, parent.emptyIndex) ^ PuzzleSize.lowBits(tile, target);
+        this.boardHigh = parent.boardHigh ^ PuzzleSize.highBits(tile, parent.emptyIndex) ^ PuzzleSize.highBits(tile, target);
+        this.emptyIndex = target;
 
-        this.setGValue(this);
-        this.setHValue();
+        this.actionDirection = action;
+        this.parentNode = parent;
+
+        this.setGValue();
+        this.setHValue(heuristic);
         this.setFValue();
     }
 
     int getEmpRow() {
-		return this.empty_loc_row;
+		return this.emptyIndex / this.size.getWidth();
 	}
 
 	int getEmpCol() {
-		return this.empty_loc_col;
+		return this.emptyIndex % this.size.getWidth();
 	}
 
+    int getEmptyIndex(){
+        return this.emptyIndex;
+    }
+
+    PuzzleSize getSize(){
+        return this.size;
+    }
+
+    // the first packed word; on boards up to 4x4 it identifies the board on its own
+    long getBoard(){
+        return this.board;
+    }
+
+    long getBoardHigh(){
+        return this.boardHigh;
+    }
+
+    boolean isGoal(){
+        return this.size.isGoal(this.board, this.boardHigh);
+    }
+
+    // unpacks the board into a fresh 2D array (used by the GUI when drawing a state)
     int[][] getTileValues(){
-        return this.tileValues;
+        return this.size.unpack(this.board, this.boardHigh);
     }
 
     Character getAction(){
@@ -56,93 +104,80 @@ public class State {
         this.parentNode = p;
     }
 
-    Integer getGValue(){
+    int getGValue(){
         return this.g;
     }
 
-    Integer getHValue(){
+    int getHValue(){
         return this.h;
     }
 
-    Integer getFValue(){
+    int getFValue(){
         return this.f;
     }
 
-    private void incrementG(){
-        this.g++;
+    // method to get the actions from the root to this node. The buffer is sized from g up front
+    // and filled back to front while walking up the parents, so no recursion or reversing is needed.
+    char[] getPathActions(){
+        char[] actions = new char[this.g];
+        State node = this;
+        for(int i=this.g-1; i>=0; i--){
+            actions[i] = node.actionDirection;
+            node = node.parentNode;
+        }
+        return actions;
     }
 
-    // method to set empty tile coordinates
-    private void setEmptyLocCoords(){
-        boolean done = false;
-        for(int row=0; row<GameBoard.MAP_NUM_ROWS && !done; row++){
-            for(int col=0; col<GameBoard.MAP_NUM_COLS; col++){
-                if(this.tileValues[row][col] == 0){
-                    this.empty_loc_row = row;
-                    this.empty_loc_col = col;
-                    done = true;
-                    break;
-                }
-            }
+    // method to get the states from the root to this node (both included), filled the same way
+    State[] getPathStates(){
+        State[] states = new State[this.g + 1];
+        State node = this;
+        for(int i=this.g; i>=0; i--){
+            states[i] = node;
+            node = node.parentNode;
         }
+        return states;
     }
 
-    // method to set G value
-    private void setGValue(State node){
-        if(node.getAction() == State.actionNotApplicable){
-            return;
-        }
-        else{
-            this.incrementG();
-            setGValue(node.getParent());
-        }
+    // method to read the tile value stored at a cell of a single-word board (up to 4x4)
+    static int tileAt(long board, int cell){
+        return (int) (board >>> (4 * cell)) & 0xF;
     }
 
-    // method to set H value
-    private void setHValue(){
-        Integer totalDistance = 0;
-        Integer distance = 0;
-
-        for(int i=0; i<GameBoard.MAP_NUM_ROWS; i++){
-            for(int j=0; j<GameBoard.MAP_NUM_COLS; j++){
-                switch (this.tileValues[i][j]) {
-                    case 1:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(1)) + Math.abs(j-GameBoard.getColOfSolutionIndex(1));
-                        totalDistance+=distance;                      
-                        break;
-                    case 2:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(2)) + Math.abs(j-GameBoard.getColOfSolutionIndex(2));
-                        totalDistance+=distance;                      
-                        break;
-                    case 3:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(3)) + Math.abs(j-GameBoard.getColOfSolutionIndex(3));
-                        totalDistance+=distance;                      
-                        break;
-                    case 4:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(4)) + Math.abs(j-GameBoard.getColOfSolutionIndex(4));
-                        totalDistance+=distance;                      
-                        break;
-                    case 5:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(5)) + Math.abs(j-GameBoard.getColOfSolutionIndex(5));
-                        totalDistance+=distance;                      
-                        break;
-                    case 6:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(6)) + Math.abs(j-GameBoard.getColOfSolutionIndex(6));
-                        totalDistance+=distance;                      
-                        break;
-                    case 7:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(7)) + Math.abs(j-GameBoard.getColOfSolutionIndex(7));
-                        totalDistance+=distance;                      
-                        break;
-                    case 8:
-                        distance = Math.abs(i-GameBoard.getRowOfSolutionIndex(8)) + Math.abs(j-GameBoard.getColOfSolutionIndex(8));
-                        totalDistance+=distance;                      
-                        break;
-                }
-            }
-        }
+    // method to slide the tile at cell 'target' into the empty cell of a single-word board (up to 4x4).
+    // Since the empty nibble is zero,
+    // XOR-ing the tile into both positions moves it without touching the rest of the board.
+    static long moveBlank(long board, int emptyIndex, int target){
+        long tile = (board >>> (4 * target)) & 0xFL;
+        return board ^ (tile << (4 * emptyIndex)) ^ (tile << (4 * target));
+    }
+
+    // method to get the action that undoes the given one
+    static char inverse(char action){
+        if(action == State.UP) return State.DOWN;
+        if(action == State.DOWN) return State.UP;
+        if(action == State.LEFT) return State.RIGHT;
+        if(action == State.RIGHT) return State.LEFT;
+        return State.actionNotApplicable;
+    }
+
+    // method to set G value: one more move than the parent, or zero for a root
+    private void setGValue(){
+        this.g = this.parentNode == null ? 0 : this.parentNode.g + 1;
+    }
 
-        this.h = totalDistance;
+    // method to set H value. A successor differs from its parent by one tile, so the heuristic
+    // is given that move and may update the parent's h instead of evaluating the whole board.
+    private void setHValue(Heuristic heuristic){
+        if(this.parentNode == null){
+            this.h = heuristic.estimate(this.board, this.boardHigh);
+        }
+        else{
+            int from = this.emptyIndex;                 // the moved tile left the new empty cell...
+            int to = this.parentNode.getEmptyIndex();   // ...and now sits in the parent's empty cell
+            int tile = PuzzleSize.tileAt(this.board, this.boardHigh, to);
+            this.h = heuristic.update(this.parentNode.getHValue(), this.board, this.boardHigh, tile, from, to);
+        }
     }
 
     // method to set F value
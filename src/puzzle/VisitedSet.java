@@ -0,0 +1,16 @@
+package puzzle;
+
+// The set of packed boards a search has already reached.
+public interface VisitedSet {
+    // marks a board as visited. Returns true if it was not visited before.
+    boolean add(long low, long high);
+
+    boolean contains(long low, long high);
+
+    // method to pick the smallest set for a board width: 8-puzzle boards fit a rank bitset,
+    // larger boards are hashed
+    static VisitedSet forSize(PuzzleSize size){
+        if(size.getWidth() == 3) return new VisitedTable();
+        return new BoardIndex();
+    }
+}
@@ -0,0 +1,53 @@
+package puzzle;
+
+import java.util.Arrays;
+
+// A visited-state table over permutation ranks, one bit per reachable board.
+// Covering the whole 8-puzzle space takes 181,440 bits (about 23 KB).
+public class VisitedTable implements VisitedSet {
+    private final long[] bits;
+    private final int capacity;
+
+    public VisitedTable(){
+        this(PermutationRank.STATE_COUNT);
+    }
+
+    public VisitedTable(int capacity){
+        this.capacity = capacity;
+        this.bits = new long[(capacity + 63) >>> 6];
+    }
+
+    int capacity(){
+        return this.capacity;
+    }
+
+    boolean contains(int rank){
+        return (this.bits[rank >>> 6] & (1L << rank)) != 0;
+    }
+
+    // marks a rank as visited. Returns true if it was not visited before.
+    boolean add(int rank){
+        int word = rank >>> 6;
+        long mask = 1L << rank;
+        if((this.bits[word] & mask) != 0) return false;
+        this.bits[word] |= mask;
+        return true;
+    }
+
+    void remove(int rank){
+        this.bits[rank >>> 6] &= ~(1L << rank);
+    }
+
+    // 8-puzzle boards fit in the first word, so the second one is ignored
+    public boolean add(long low, long high){
+        return this.add(PermutationRank.rank(low));
+    }
+
+    public boolean contains(long low, long high){
+        return this.contains(PermutationRank.rank(low));
+    }
+
+    void clear(){
+        Arrays.fill(this.bits, 0L);
+    }
+}
@@ -0,0 +1,158 @@
+package puzzle;
+
+import java.util.HashMap;
+
+// Walking distance (Ken'ichiro Takahashi). Vertically, the board is reduced to a count matrix:
+// how many tiles of each goal row are in each row, plus the row of the empty tile. A vertical move
+// swaps the empty tile with a tile from an adjacent row, which changes the matrix; a breadth-first
+// search from the goal matrix gives the exact number of vertical moves needed for every matrix.
+// The same is done for columns, and the two counts are added, since no move is both vertical and
+// horizontal.
+//
+// A matrix is packed 3 bits per count (line * width + goal line) with the empty line above them,
+// which fits a long for boards up to 4x4. The distances are kept in a primitive open-addressing table
+// (a 4x4 board has 24964 matrices), so a lookup neither boxes nor allocates. A move is either vertical
+// or horizontal, so a successor only looks up the matrix of the direction it moved in.
+public class WalkingDistanceHeuristic implements Heuristic {
+    public final static int MAX_WIDTH = 4;
+
+    private final static HashMap<Integer, Table> tables = new HashMap<>();   // by width and goal empty line
+
+    private final PuzzleSize size;
+    private final int emptyShift;
+    private final Table verticalTable;
+    private final Table horizontalTable;
+
+    public WalkingDistanceHeuristic(PuzzleSize size){
+        if(size.getWidth() > MAX_WIDTH){
+            throw new IllegalArgumentException("Walking distance supports boards up to " + MAX_WIDTH + "x" + MAX_WIDTH);
+        }
+        this.size = size;
+        this.emptyShift = 3 * size.getCells();
+
+        int goalEmpty = size.getGoalEmptyIndex();
+        this.verticalTable = WalkingDistanceHeuristic.tableFor(size, goalEmpty / size.getWidth());
+        this.horizontalTable = WalkingDistanceHeuristic.tableFor(size, goalEmpty % size.getWidth());
+    }
+
+    public int estimate(long low, long high){
+        return this.verticalTable.get(this.matrixKey(low, high, true)) + this.horizontalTable.get(this.matrixKey(low, high, false));
+    }
+
+    // the tile moved from cell 'from' to cell 'to', so the parent had the empty tile at 'to' and the tile
+    // at 'from'. Only the matrix of the direction moved in changes; the parent's matrix is the child's
+    // with that one tile and the empty line swapped back.
+    public int update(int parentH, long low, long high, int tile, int from, int to){
+        int width = this.size.getWidth();
+        boolean vertical = from / width != to / width;
+        int fromLine = vertical ? from / width : from % width;
+        int toLine = vertical ? to / width : to % width;
+        int goalLine = vertical ? this.size.getGoalRow(tile) : this.size.getGoalCol(tile);
+        Table table = vertical ? this.verticalTable : this.horizontalTable;
+
+        long key = this.matrixKey(low, high, vertical);
+        long parentKey = key - (1L << (3 * (toLine*width + goalLine))) + (1L << (3 * (fromLine*width + goalLine)));
+        parentKey = (parentKey & ((1L << this.emptyShift) - 1)) | (((long) toLine) << this.emptyShift);
+        return parentH - table.get(parentKey) + table.get(key);
+    }
+
+    // method to pack the count matrix of a board by rows (vertical) or by columns
+    private long matrixKey(long low, long high, boolean vertical){
+        int width = this.size.getWidth();
+        long key = 0L;
+        for(int cell=0; cell<this.size.getCells(); cell++){
+            int line = vertical ? cell / width : cell % width;
+            int tile = PuzzleSize.tileAt(low, high, cell);
+            if(tile == 0) key |= ((long) line) << this.emptyShift;
+            else key += 1L << (3 * (line*width + (vertical ? this.size.getGoalRow(tile) : this.size.getGoalCol(tile))));
+        }
+        return key;
+    }
+
+    // method to get (building it on first use) the table for a width and goal empty line
+    private static synchronized Table tableFor(PuzzleSize size, int goalEmptyLine){
+        int key = size.getWidth() * (PuzzleSize.MAX_WIDTH + 1) + goalEmptyLine;
+        Table table = tables.get(key);
+        if(table == null){
+            table = WalkingDistanceHeuristic.buildTable(size.getWidth(), goalEmptyLine);
+            tables.put(key, table);
+        }
+        return table;
+    }
+
+    // method to run a breadth-first search over count matrices, starting from the goal matrix
+    // (every tile in its own line, the empty tile in goalEmptyLine)
+    private static Table buildTable(int lines, int goalEmptyLine){
+        int emptyShift = 3 * lines * lines;
+        long goalKey = ((long) goalEmptyLine) << emptyShift;
+        for(int line=0; line<lines; line++){
+            int count = line == goalEmptyLine ? lines - 1 : lines;
+            goalKey += ((long) count) << (3 * (line*lines + line));
+        }
+
+        Table table = new Table(Table.CAPACITY);
+        long[] queue = new long[Table.CAPACITY];   // every matrix is queued once
+        int head = 0, tail = 0;
+        table.put(goalKey, 0);
+        queue[tail++] = goalKey;
+
+        while(head < tail){
+            long key = queue[head++];
+            int distance = table.get(key);
+            int emptyLine = (int) (key >>> emptyShift);
+
+            for(int step=-1; step<=1; step+=2){
+                int fromLine = emptyLine + step;
+                if(fromLine < 0 || fromLine >= lines) continue;
+                // any tile class present in the neighbouring line can move into the empty line
+                for(int goalLine=0; goalLine<lines; goalLine++){
+                    int fromShift = 3 * (fromLine*lines + goalLine);
+                    if(((key >>> fromShift) & 7) == 0) continue;
+
+                    long next = key - (1L << fromShift) + (1L << (3 * (emptyLine*lines + goalLine)));
+                    next = (next & ((1L << emptyShift) - 1)) | (((long) fromLine) << emptyShift);
+                    if(table.get(next) < 0){
+                        table.put(next, distance + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return table;
+    }
+
+    // Matrix key to distance, with linear probing. Key 0 never occurs (the counts add up to the number
+    // of tiles), so it marks an empty slot.
+    private static class Table {
+        private final static int CAPACITY = 1 << 16;   // a power of two, over twice the 4x4 matrix count
+
+        private final long[] keys;
+        private final byte[] distances;
+
+        private Table(int capacity){
+            this.keys = new long[capacity];
+            this.distances = new byte[capacity];
+        }
+
+        // method to get the distance of a matrix, or -1 if it is not in the table
+        private int get(long key){
+            int mask = this.keys.length - 1;
+            for(int slot=Table.slotOf(key, mask); ; slot=(slot + 1) & mask){
+                if(this.keys[slot] == key) return this.distances[slot];
+                if(this.keys[slot] == 0L) return -1;
+            }
+        }
+
+        private void put(long key, int distance){
+            int mask = this.keys.length - 1;
+            int slot = Table.slotOf(key, mask);
+            while(this.keys[slot] != 0L && this.keys[slot] != key) slot = (slot + 1) & mask;
+            this.keys[slot] = key;
+            this.distances[slot] = (byte) distance;
+        }
+
+        private static int slotOf(long key, int mask){
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+    }
+}